@@ -0,0 +1,49 @@
+-- Overlap search on event_times with ~1M rows.
+--
+-- Run against a database migrated by the application:
+--   psql -h localhost -U postgres -d postgres -f benchmark/event_times_overlap.sql
+--
+-- Everything is created in a scratch schema that is dropped at the end. The plan of the
+-- final query should show a bitmap index scan on the GiST range index of event_times with both
+-- bounds of the range as index condition, instead of a sequential scan over event_times or a
+-- btree scan that filters one of the bounds.
+
+create schema bench;
+
+create table bench.event (like public.event including all);
+create table bench.event_times (like public.event_times including all);
+
+insert into bench.event (id, title, description, organizer_name, organizer_email, event_type)
+select md5('event-' || i)::uuid, 'Event ' || i, '', 'Organizer', 'organizer' || (i % 1000) || '@example.com',
+       'PUBLIC'
+from generate_series(1, 200000) i;
+
+-- five possible slots per event, spread over two years, 30 minutes to 4 hours long
+insert into bench.event_times (id, event_id, start_time, end_time)
+select md5('slot-' || i)::uuid,
+       md5('event-' || ((i - 1) / 5 + 1))::uuid,
+       s.start_time,
+       s.start_time + (30 + (i * 7919) % 210) * interval '1 minute'
+from generate_series(1, 1000000) i
+         cross join lateral (select timestamptz '2024-01-01' + ((i * 104729) % 1051200) * interval '1 minute' as start_time) s;
+
+analyze bench.event;
+analyze bench.event_times;
+
+set search_path = bench;
+
+explain (analyze, buffers)
+select e.*
+from event e
+where e.event_type = 'PUBLIC'
+  and exists (select 1
+              from event_times t
+              where t.event_id = e.id
+                and tstzrange(t.start_time, t.end_time)
+                    && tstzrange(timestamptz '2024-06-01 00:00', timestamptz '2024-06-02 00:00'))
+order by e.title
+limit 20;
+
+reset search_path;
+
+drop schema bench cascade;
@@ -0,0 +1,35 @@
+-- Case-insensitive title substring search on event with ~1M rows.
+--
+-- Run against a database migrated by the application:
+--   psql -h localhost -U postgres -d postgres -f benchmark/event_title_search.sql
+--
+-- The plan should show a bitmap index scan on the trigram index of title instead of a
+-- sequential scan over event.
+
+create schema bench;
+
+create table bench.event (like public.event including all);
+
+insert into bench.event (id, title, description, organizer_name, organizer_email, event_type)
+select md5('event-' || i)::uuid,
+       (array ['Team', 'Board', 'Summer', 'Winter', 'Family', 'Club'])[1 + i % 6] || ' ' ||
+       (array ['Meeting', 'Party', 'Dinner', 'Hike', 'Workshop', 'Game Night'])[1 + (i / 6) % 6] ||
+       ' ' || md5(i::text),
+       '', 'Organizer', 'organizer' || (i % 1000) || '@example.com', 'PUBLIC'
+from generate_series(1, 1000000) i;
+
+analyze bench.event;
+
+set search_path = bench, public;
+
+explain (analyze, buffers)
+select e.*
+from event e
+where e.event_type = 'PUBLIC'
+  and e.title ilike '%night 3fa%'
+order by e.title, e.id
+limit 20;
+
+reset search_path;
+
+drop schema bench cascade;
@@ -0,0 +1,74 @@
+-- Index size and insert throughput of random UUIDs stored as varchar against time-ordered UUIDs
+-- stored as uuid, for a table shaped like event_participant_availability.
+--
+--   psql -h localhost -U postgres -d postgres -f benchmark/uuid_keys.sql
+--
+-- Compare the insert timings and the index sizes printed at the end. Everything is created in a
+-- scratch schema that is dropped at the end.
+
+\timing on
+
+create schema bench;
+
+-- version 7 UUID: Unix time in milliseconds in the first 48 bits, the rest random
+create function bench.uuid_v7() returns uuid as
+$$
+select encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       placing substring(int8send(floor(extract(epoch from clock_timestamp()) * 1000)::bigint) from 3)
+                                       from 1 for 6),
+                               52, 1),
+                       53, 1),
+               'hex')::uuid
+$$ language sql volatile;
+
+create table bench.availability_varchar
+(
+    id                   varchar     not null primary key,
+    event_participant_id varchar     not null,
+    event_id             varchar     not null,
+    start_time           timestamptz not null,
+    end_time             timestamptz not null,
+    status               varchar     not null
+);
+create index on bench.availability_varchar (event_participant_id);
+create index on bench.availability_varchar (event_id);
+
+create table bench.availability_uuid
+(
+    id                   uuid        not null primary key,
+    event_participant_id uuid        not null,
+    event_id             uuid        not null,
+    start_time           timestamptz not null,
+    end_time             timestamptz not null,
+    status               varchar     not null
+);
+create index on bench.availability_uuid (event_participant_id);
+create index on bench.availability_uuid (event_id);
+
+-- 2M rows in batches of 10 per participant and 500 participants per event, like createEvent
+insert into bench.availability_varchar
+select gen_random_uuid()::text, p.participant_id, p.event_id, now(), now(), 'UNDECIDED'
+from (select gen_random_uuid()::text as participant_id, e.event_id
+      from (select gen_random_uuid()::text as event_id from generate_series(1, 400)) e,
+           generate_series(1, 500)) p,
+     generate_series(1, 10);
+
+insert into bench.availability_uuid
+select bench.uuid_v7(), p.participant_id, p.event_id, now(), now(), 'UNDECIDED'
+from (select bench.uuid_v7() as participant_id, e.event_id
+      from (select bench.uuid_v7() as event_id from generate_series(1, 400)) e,
+           generate_series(1, 500)) p,
+     generate_series(1, 10);
+
+select c.relname                                  as index,
+       pg_size_pretty(pg_relation_size(c.oid))    as size
+from pg_class c
+         join pg_namespace n on n.oid = c.relnamespace
+where n.nspname = 'bench'
+  and c.relkind = 'i'
+order by c.relname;
+
+drop schema bench cascade;
@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Compares platform and virtual request threads with slow image downloads. Starts the backend
+# once per mode against the stand-ins of docker-compose.yaml (which must be running) and runs the
+# IMAGES workload with 1000 clients reading 64 KiB/s each, more than the 200 platform threads of
+# Tomcat can serve at once. The disk cache is disabled in both runs, so every download streams from
+# MinIO through a request thread instead of being handed to sendfile, which sends cached files
+# without holding a thread. Prints the virtual thread run relative to the platform thread run.
+#
+#   cd loadtest && docker compose up -d && ./compare-virtual-threads.sh
+set -euo pipefail
+
+cd "$(dirname "$0")"
+CONCURRENCY="${CONCURRENCY:-1000}"
+READ_RATE="${READ_RATE:-65536}"
+
+run() {
+  local mode=$1 virtual=$2
+  java -jar ../target/RSVPPlaner-0.0.1-SNAPSHOT.jar \
+      --rsvplaner.virtual-threads.enabled="$virtual" \
+      --rsvplaner.images.disk-cache.enabled=false > "target/backend-$mode.log" 2>&1 &
+  local backend=$!
+  until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+  mvn -q compile exec:java -Dexec.args="--workloads=IMAGES --events=200 --attendees=10 \
+      --concurrency=$CONCURRENCY --read-rate=$READ_RATE --output=target/$mode.json ${3:-}"
+
+  kill "$backend"
+  wait "$backend" || true
+}
+
+mkdir -p target
+(cd .. && mvn -q -DskipTests package)
+run platform false
+run virtual true "--baseline=target/platform.json"
@@ -0,0 +1,175 @@
+package com.rsvpplaner.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+/**
+ * Calls the endpoints of the backend and records the latency of every call under the endpoint
+ * name, e.g. {@code GET /v1/event/{event_id}}, in the recorder of the current phase. Every
+ * response with a 4xx or 5xx status counts as error, none of the workloads expects one.
+ */
+final class ApiClient {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final String baseUrl;
+    private final long readRate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private volatile Recorder recorder = new Recorder();
+
+    ApiClient(String baseUrl, long readRate) {
+        this.baseUrl = baseUrl;
+        this.readRate = readRate;
+    }
+
+    void recordTo(Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    JsonNode createEvent(Object newEvent) {
+        return json(send("POST /v1/event/", post("/v1/event/", newEvent)));
+    }
+
+    JsonNode importAttendees(String eventId, Object attendees) {
+        return json(send("POST /v1/event/{event_id}/attendees",
+                post("/v1/event/" + eventId + "/attendees", attendees)));
+    }
+
+    void uploadImage(String eventId, byte[] png) {
+        send("PUT /v1/event/{event_id}", request("/v1/event/" + eventId)
+                .header("Content-Type", "image/png")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(png))
+                .build());
+    }
+
+    HttpResponse<byte[]> addAttendee(String eventId, Object attendee) {
+        return send("POST /v1/event/{event_id}", post("/v1/event/" + eventId, attendee));
+    }
+
+    HttpResponse<byte[]> updateAvailability(String eventId, String email, Object availabilities) {
+        return send("PUT /v1/event/{event_id}/{attendee_email}",
+                request("/v1/event/" + eventId + "/" + encode(email))
+                        .header("Content-Type", "application/json")
+                        .PUT(body(availabilities))
+                        .build());
+    }
+
+    HttpResponse<byte[]> getEvent(String eventId, String attendees) {
+        return send("GET /v1/event/{event_id}?attendees=" + attendees,
+                request("/v1/event/" + eventId + "?attendees=" + attendees).GET().build());
+    }
+
+    /**
+     * Requests one page of events and returns the cursor of the next page, if any.
+     */
+    Optional<String> findEvents(String query, String cursor) {
+        var uri = "/v1/event/?" + query + (cursor != null ? "&cursor=" + encode(cursor) : "");
+        var response = send("GET /v1/event/", request(uri).GET().build());
+        return response.headers().firstValue(NEXT_CURSOR_HEADER);
+    }
+
+    /**
+     * Downloads the image at the read rate of the options. The recorded latency includes the
+     * whole download.
+     */
+    void getImage(String eventId, String size) {
+        var endpoint = "GET /v1/event/{event_id}/image?size=" + size;
+        var request = request("/v1/event/" + eventId + "/image?size=" + size).GET().build();
+        if (readRate <= 0) {
+            send(endpoint, request);
+            return;
+        }
+
+        var start = System.nanoTime();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (var body = response.body()) {
+                // read in chunks of a tenth of the rate, each taking a tenth of a second
+                var chunk = new byte[(int) Math.max(1, readRate / 10)];
+                long read = 0;
+                int n;
+                while ((n = body.read(chunk)) != -1) {
+                    read += n;
+                    var due = start + read * 1_000_000_000L / readRate;
+                    var wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                    }
+                }
+            }
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest request) {
+        var start = System.nanoTime();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+            return response;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(body(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.BodyPublisher body(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode json(HttpResponse<byte[]> response) {
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(String.format("%s failed with %d: %s",
+                    response.request().uri(), response.statusCode(),
+                    new String(response.body(), StandardCharsets.UTF_8)));
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,20 @@
+package com.rsvpplaner.loadtest;
+
+/**
+ * Result of one endpoint in one phase. Latencies are in milliseconds. {@code queriesPerRequest} of
+ * all requests of a phase together is the number of SQL statements Postgres executed during the
+ * phase divided by the requests of the phase. For a single endpoint it is the average the backend
+ * recorded for the URI pattern of the endpoint, see {@link StatementMetrics}.
+ */
+record EndpointStats(
+        long requests,
+        long errors,
+        double throughput,
+        double p50,
+        double p99,
+        double queriesPerRequest) {
+
+    EndpointStats withQueriesPerRequest(double queriesPerRequest) {
+        return new EndpointStats(requests, errors, throughput, p50, p99, queriesPerRequest);
+    }
+}
@@ -0,0 +1,88 @@
+package com.rsvpplaner.loadtest;
+
+import com.rsvpplaner.loadtest.Seeder.Dataset;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds a running backend and drives one phase per {@link Workload} against it with a fixed
+ * number of concurrent users, each sending its next request as soon as the previous one finished.
+ * Every phase starts with a warmup whose requests are not recorded. Prints p50/p99 latency,
+ * throughput and SQL statements per request per phase and endpoint, and writes them to
+ * {@code --output} for comparison with {@code --baseline} in a later run.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = Options.parse(args);
+        var api = new ApiClient(options.baseUrl(), options.readRate());
+
+        System.out.printf("seeding %d events and a hot event with %d attendees%n",
+                options.events(), options.attendees());
+        var dataset = new Seeder(api, options).seed();
+
+        var baseline = options.baseline() != null ? Report.read(options.baseline()) : null;
+        var report = new Report();
+        var statementMetrics = new StatementMetrics(options);
+        try (var queryStats = new QueryStats(options)) {
+            for (var workload : options.workloads()) {
+                System.out.printf("running %s%n", workload);
+                api.recordTo(new Recorder());
+                run(api, dataset, workload, options.warmup().toMillis(), options.concurrency());
+
+                var recorder = new Recorder();
+                api.recordTo(recorder);
+                queryStats.reset();
+                var statementsBefore = statementMetrics.snapshot();
+                var start = System.nanoTime();
+                run(api, dataset, workload, options.duration().toMillis(), options.concurrency());
+                var seconds = (System.nanoTime() - start) / 1e9;
+                var statements = queryStats.executedStatements();
+                var statementsAfter = statementMetrics.snapshot();
+
+                var stats = recorder.stats(seconds);
+                stats.replaceAll((endpoint, endpointStats) -> endpointStats.withQueriesPerRequest(
+                        statementMetrics.queriesPerRequest(endpoint, statementsBefore,
+                                statementsAfter)));
+                var all = stats.get(Recorder.ALL);
+                stats.put(Recorder.ALL, all.withQueriesPerRequest(
+                        all.requests() > 0 ? (double) statements / all.requests() : Double.NaN));
+                report.add(workload, stats);
+            }
+        }
+
+        report.print(System.out, baseline);
+        report.write(options.output());
+        System.out.printf("report written to %s%n", options.output());
+    }
+
+    private static void run(ApiClient api, Dataset dataset, Workload workload, long millis,
+            int concurrency) {
+        var deadline = System.currentTimeMillis() + millis;
+        var failures = new ArrayList<Throwable>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    var random = ThreadLocalRandom.current();
+                    while (System.currentTimeMillis() < deadline) {
+                        try {
+                            workload.run(api, dataset, random);
+                        } catch (RuntimeException e) {
+                            // the failed request is already recorded as error
+                            synchronized (failures) {
+                                if (failures.size() < 10) {
+                                    failures.add(e);
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        failures.forEach(e -> System.err.printf("%s: %s%n", workload, e));
+    }
+}
@@ -0,0 +1,73 @@
+package com.rsvpplaner.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. {@code --read-rate} limits how fast image
+ * downloads are read in bytes per second, to simulate slow clients, 0 reads as fast as possible.
+ * {@code --metrics-url} is the Prometheus endpoint of the backend the statements per endpoint are
+ * read from.
+ */
+record Options(
+        String baseUrl,
+        String metricsUrl,
+        String jdbcUrl,
+        String jdbcUser,
+        String jdbcPassword,
+        int events,
+        int attendees,
+        int slots,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        List<Workload> workloads,
+        long readRate,
+        Path output,
+        Path baseline) {
+
+    static Options parse(String[] args) {
+        var values = new HashMap<String, String>();
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        var options = new Options(
+                get(values, "base-url", "http://localhost:8080/api"),
+                get(values, "metrics-url", "http://localhost:8080/actuator/prometheus"),
+                get(values, "jdbc-url", "jdbc:postgresql://localhost:5432/"),
+                get(values, "jdbc-user", "postgres"),
+                get(values, "jdbc-password", "testpostgres"),
+                Integer.parseInt(get(values, "events", "1000")),
+                Integer.parseInt(get(values, "attendees", "2000")),
+                Integer.parseInt(get(values, "slots", "10")),
+                Integer.parseInt(get(values, "concurrency", "64")),
+                Duration.parse(get(values, "warmup", "PT10S")),
+                Duration.parse(get(values, "duration", "PT30S")),
+                Arrays.stream(get(values, "workloads", "RSVP_STORM,BROWSE,IMAGES,MIXED")
+                                .split(","))
+                        .map(String::strip)
+                        .map(Workload::valueOf)
+                        .toList(),
+                Long.parseLong(get(values, "read-rate", "0")),
+                Path.of(get(values, "output", "loadtest-report.json")),
+                values.containsKey("baseline") ? Path.of(values.remove("baseline")) : null);
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("unknown options " + values.keySet());
+        }
+        return options;
+    }
+
+    private static String get(Map<String, String> values, String name, String defaultValue) {
+        var value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+}
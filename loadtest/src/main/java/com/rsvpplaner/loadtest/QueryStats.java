@@ -0,0 +1,47 @@
+package com.rsvpplaner.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Counts the statements the backend executes through pg_stat_statements, which the Postgres of
+ * docker-compose.yaml preloads. The counters are reset at the start of every phase. Statements of
+ * this class and transaction control statements are excluded from the count.
+ */
+final class QueryStats implements AutoCloseable {
+    private final Connection connection;
+
+    QueryStats(Options options) throws SQLException {
+        connection = DriverManager.getConnection(options.jdbcUrl(), options.jdbcUser(),
+                options.jdbcPassword());
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+        }
+    }
+
+    void reset() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("SELECT pg_stat_statements_reset()");
+        }
+    }
+
+    long executedStatements() throws SQLException {
+        try (var statement = connection.prepareStatement("""
+                SELECT coalesce(sum(s.calls), 0)
+                FROM pg_stat_statements s
+                WHERE s.dbid = (SELECT oid FROM pg_database WHERE datname = current_database())
+                  AND s.query NOT ILIKE '%pg_stat_statements%'
+                  AND s.query NOT IN ('BEGIN', 'COMMIT', 'ROLLBACK')
+                """);
+             var result = statement.executeQuery()) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.rsvpplaner.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the latency of every request of a phase per endpoint. Latencies are kept as raw
+ * nanoseconds so the percentiles are exact, a phase of a few minutes stays well within memory.
+ */
+final class Recorder {
+    static final String ALL = "*";
+
+    private final Map<String, Latencies> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        endpoints.computeIfAbsent(endpoint, e -> new Latencies()).add(nanos, success);
+    }
+
+    /**
+     * Summarizes the recorded requests, sorted by endpoint, with all requests of the phase
+     * together under {@link #ALL}.
+     */
+    Map<String, EndpointStats> stats(double seconds) {
+        var stats = new TreeMap<String, EndpointStats>();
+        var all = new Latencies();
+        endpoints.forEach((endpoint, latencies) -> {
+            stats.put(endpoint, latencies.stats(seconds));
+            all.addAll(latencies);
+        });
+        stats.put(ALL, all.stats(seconds));
+        return stats;
+    }
+
+    private static final class Latencies {
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long latency, boolean success) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Latencies other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) {
+                    add(other.nanos[i], true);
+                }
+                errors += other.errors;
+            }
+        }
+
+        synchronized EndpointStats stats(double seconds) {
+            var sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new EndpointStats(count, errors, count / seconds,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), Double.NaN);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            var index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.rsvpplaner.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of a run by phase and endpoint. Written as JSON so a later run can be compared against
+ * it with {@code --baseline}.
+ */
+final class Report {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Map<String, EndpointStats>> phases = new LinkedHashMap<>();
+
+    void add(Workload phase, Map<String, EndpointStats> endpoints) {
+        phases.put(phase.name(), endpoints);
+    }
+
+    void write(Path path) throws IOException {
+        OBJECT_MAPPER.writeValue(path.toFile(), phases);
+    }
+
+    static Report read(Path path) throws IOException {
+        var report = new Report();
+        report.phases.putAll(OBJECT_MAPPER.readValue(path.toFile(),
+                new TypeReference<Map<String, Map<String, EndpointStats>>>() {
+                }));
+        return report;
+    }
+
+    /**
+     * Prints one line per phase and endpoint. With a baseline, every value is followed by its
+     * change relative to the baseline in percent.
+     */
+    void print(PrintStream out, Report baseline) {
+        out.printf("%-11s %-50s %8s %6s %9s %12s %12s %10s%n", "phase", "endpoint", "requests",
+                "errors", "req/s", "p50 ms", "p99 ms", "queries");
+        phases.forEach((phase, endpoints) -> endpoints.forEach((endpoint, stats) -> {
+            var before = baseline != null
+                    ? baseline.phases.getOrDefault(phase, Map.of()).get(endpoint)
+                    : null;
+            out.printf("%-11s %-50s %8d %6d %9s %12s %12s %10s%n", phase, endpoint,
+                    stats.requests(), stats.errors(),
+                    value(stats.throughput(), before != null ? before.throughput() : Double.NaN),
+                    value(stats.p50(), before != null ? before.p50() : Double.NaN),
+                    value(stats.p99(), before != null ? before.p99() : Double.NaN),
+                    value(stats.queriesPerRequest(),
+                            before != null ? before.queriesPerRequest() : Double.NaN));
+        }));
+    }
+
+    private static String value(double value, double baseline) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        if (Double.isNaN(baseline) || baseline == 0) {
+            return String.format("%.1f", value);
+        }
+        return String.format("%.1f %+.0f%%", value, (value - baseline) / baseline * 100);
+    }
+}
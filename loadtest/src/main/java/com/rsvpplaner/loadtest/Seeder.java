@@ -0,0 +1,186 @@
+package com.rsvpplaner.loadtest;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+
+/**
+ * Seeds the dataset through the API, so the database contains exactly what the backend writes:
+ * events with a skewed number of attendees, one hot event with {@code --attendees} attendees for
+ * the RSVP storm and images for a part of the events. Seeding is deterministic for the same
+ * options apart from the generated ids.
+ */
+final class Seeder {
+    static final List<String> WORDS = List.of("summer", "party", "meetup", "dinner", "hike",
+            "workshop", "birthday", "concert", "lunch", "retreat", "game", "night", "team",
+            "book", "club", "brunch", "festival", "trip", "review", "planning");
+
+    private static final int ORGANIZERS = 50;
+    private static final int IMPORT_CHUNK = 1000;
+    private static final int IMAGES = 200;
+
+    private final ApiClient api;
+    private final Options options;
+    private final Random random = new Random(42);
+
+    Seeder(ApiClient api, Options options) {
+        this.api = api;
+        this.options = options;
+    }
+
+    record Dataset(
+            List<String> eventIds,
+            List<String> imageEventIds,
+            String hotEventId,
+            List<String> hotAttendees,
+            List<Map<String, Object>> hotSlots,
+            List<String> organizerEmails,
+            List<String> attendeeEmails) {
+    }
+
+    Dataset seed() throws InterruptedException {
+        var start = Instant.now().truncatedTo(ChronoUnit.HOURS).plus(Duration.ofDays(7));
+        var organizerEmails = IntStream.range(0, ORGANIZERS)
+                .mapToObj(i -> "organizer" + i + "@example.com")
+                .toList();
+        var attendeeEmails = IntStream.range(0, 500)
+                .mapToObj(i -> "attendee" + i + "@example.com")
+                .toList();
+
+        var events = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < options.events(); i++) {
+            var eventStart = start.plus(Duration.ofHours(random.nextInt(24 * 180)));
+            events.add(newEvent(i % 2 == 0 ? "PUBLIC" : "PRIVATE",
+                    WORDS.get(random.nextInt(WORDS.size())) + " "
+                            + WORDS.get(random.nextInt(WORDS.size())) + " " + i,
+                    organizerEmails.get(random.nextInt(ORGANIZERS)),
+                    slots(eventStart, 1 + random.nextInt(options.slots()))));
+        }
+
+        var eventIds = new ArrayList<String>();
+        try (var executor = Executors.newFixedThreadPool(16)) {
+            var futures = events.stream()
+                    .map(e -> executor.submit(() -> api.createEvent(e).get("event_id").asText()))
+                    .toList();
+            for (var future : futures) {
+                eventIds.add(future.get());
+            }
+
+            // most events have a few attendees, some have many
+            var imports = new ArrayList<Future<?>>();
+            for (int i = 0; i < eventIds.size(); i++) {
+                var eventId = eventIds.get(i);
+                var slots = (List<?>) events.get(i).get("possible_date_times");
+                var count = (int) Math.min(attendeeEmails.size(),
+                        Math.round(Math.pow(random.nextDouble(), 4) * 200));
+                var attendees = IntStream.range(0, count)
+                        .mapToObj(a -> attendee(attendeeEmails.get(a), slots))
+                        .toList();
+                if (!attendees.isEmpty()) {
+                    imports.add(executor.submit(() -> api.importAttendees(eventId, attendees)));
+                }
+            }
+            for (var future : imports) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("seeding failed", e.getCause());
+        }
+
+        var hotSlots = slots(start, options.slots());
+        var hotEventId = api.createEvent(newEvent("PUBLIC", "hot event",
+                organizerEmails.get(0), hotSlots)).get("event_id").asText();
+        var hotAttendees = IntStream.range(0, options.attendees())
+                .mapToObj(i -> "hot" + i + "@example.com")
+                .toList();
+        for (int i = 0; i < hotAttendees.size(); i += IMPORT_CHUNK) {
+            api.importAttendees(hotEventId, hotAttendees
+                    .subList(i, Math.min(i + IMPORT_CHUNK, hotAttendees.size())).stream()
+                    .map(email -> attendee(email, hotSlots))
+                    .toList());
+        }
+
+        var imageEventIds = eventIds.subList(0, Math.min(IMAGES, eventIds.size()));
+        var png = png();
+        for (var eventId : imageEventIds) {
+            api.uploadImage(eventId, png);
+        }
+
+        return new Dataset(List.copyOf(eventIds), List.copyOf(imageEventIds), hotEventId,
+                hotAttendees, hotSlots, organizerEmails, attendeeEmails);
+    }
+
+    private static Map<String, Object> newEvent(String eventType, String title,
+            String organizerEmail, List<Map<String, Object>> slots) {
+        var event = new LinkedHashMap<String, Object>();
+        event.put("title", title);
+        event.put("description", "Seeded by the load test");
+        event.put("location", "Somewhere");
+        event.put("event_type", eventType);
+        event.put("organizer", Map.of("name", "Organizer", "email", organizerEmail));
+        event.put("possible_date_times", slots);
+        return event;
+    }
+
+    private static List<Map<String, Object>> slots(Instant start, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Map.<String, Object>of(
+                        "start_time", start.plus(Duration.ofDays(i)).toString(),
+                        "end_time", start.plus(Duration.ofDays(i)).plus(Duration.ofHours(3))
+                                .toString()))
+                .toList();
+    }
+
+    private Map<String, Object> attendee(String email, List<?> slots) {
+        return Map.of(
+                "email", email,
+                "name", email.substring(0, email.indexOf('@')),
+                "attendee_availabilities", availabilities(slots, random));
+    }
+
+    static List<Map<String, Object>> availabilities(List<?> slots, Random random) {
+        var statuses = List.of("ACCEPTED", "DECLINED", "UNDECIDED");
+        return slots.stream()
+                .map(s -> (Map<?, ?>) s)
+                .map(s -> Map.<String, Object>of(
+                        "start_time", s.get("start_time"),
+                        "end_time", s.get("end_time"),
+                        "status", statuses.get(random.nextInt(statuses.size()))))
+                .toList();
+    }
+
+    /**
+     * A 2000x1500 image, large enough that the backend generates downscaled variants.
+     */
+    private static byte[] png() {
+        var image = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, 2000, 1500, Color.BLUE));
+        graphics.fillRect(0, 0, 2000, 1500);
+        graphics.dispose();
+
+        var out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
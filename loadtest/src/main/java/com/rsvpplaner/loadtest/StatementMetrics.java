@@ -0,0 +1,105 @@
+package com.rsvpplaner.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the SQL statements per request that the backend records as
+ * {@code rsvplaner.http.server.statements} per method and URI pattern from its Prometheus
+ * endpoint. The backend counts the statements Hibernate prepares on the request thread, so the
+ * numbers are per endpoint but may differ slightly from what Postgres executes. Endpoints that only
+ * differ in their query parameters share one URI pattern and therefore one value.
+ */
+final class StatementMetrics {
+    private static final Pattern SAMPLE = Pattern.compile(
+            "^rsvplaner_http_server_statements_(count|sum)\\{(.*)} (\\S+)$");
+    private static final Pattern LABEL = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final URI metricsUrl;
+    private final String basePath;
+
+    StatementMetrics(Options options) {
+        this.metricsUrl = URI.create(options.metricsUrl());
+        this.basePath = URI.create(options.baseUrl()).getPath();
+    }
+
+    /**
+     * Count and sum of the recorded statements so far, by {@code <method> <uri>}.
+     */
+    Map<String, double[]> snapshot() {
+        var samples = new HashMap<String, double[]>();
+        for (var line : scrape().split("\n")) {
+            var sample = SAMPLE.matcher(line);
+            if (!sample.matches()) {
+                continue;
+            }
+
+            var labels = new HashMap<String, String>();
+            var label = LABEL.matcher(sample.group(2));
+            while (label.find()) {
+                labels.put(label.group(1), label.group(2));
+            }
+
+            var values = samples.computeIfAbsent(labels.get("method") + " " + labels.get("uri"),
+                    k -> new double[2]);
+            values[sample.group(1).equals("count") ? 0 : 1] = Double.parseDouble(sample.group(3));
+        }
+        return samples;
+    }
+
+    /**
+     * Statements per request of the endpoint between the two snapshots, NaN if the backend has
+     * not recorded a request of it.
+     *
+     * @param endpoint name of the endpoint as recorded by the {@link ApiClient}, e.g.
+     *                 {@code GET /v1/event/{event_id}?attendees=FULL}
+     */
+    double queriesPerRequest(String endpoint, Map<String, double[]> before,
+            Map<String, double[]> after) {
+        var path = endpoint.contains("?") ? endpoint.substring(0, endpoint.indexOf('?')) : endpoint;
+        var space = path.indexOf(' ');
+        if (space < 0) {
+            return Double.NaN;
+        }
+        var key = path.substring(0, space) + " " + basePath + path.substring(space + 1);
+
+        var end = after.get(key);
+        if (end == null) {
+            return Double.NaN;
+        }
+        var start = before.getOrDefault(key, new double[2]);
+        var requests = end[0] - start[0];
+        return requests > 0 ? (end[1] - start[1]) / requests : Double.NaN;
+    }
+
+    private String scrape() {
+        try {
+            var response = httpClient.send(HttpRequest.newBuilder(metricsUrl)
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(String.format("%s failed with %d", metricsUrl,
+                        response.statusCode()));
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
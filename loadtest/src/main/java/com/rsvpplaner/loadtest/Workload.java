@@ -0,0 +1,99 @@
+package com.rsvpplaner.loadtest;
+
+import com.rsvpplaner.loadtest.Seeder.Dataset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The operations a simulated user performs. Each phase runs one workload with every worker
+ * picking operations by weight until the phase ends.
+ */
+enum Workload {
+
+    /**
+     * Many attendees answering one event at the same time, with a few new attendees joining.
+     */
+    RSVP_STORM {
+        @Override
+        void run(ApiClient api, Dataset dataset, ThreadLocalRandom random) {
+            if (random.nextInt(10) == 0) {
+                var email = "storm-" + UUID.randomUUID() + "@example.com";
+                api.addAttendee(dataset.hotEventId(), Map.of(
+                        "email", email,
+                        "name", "storm",
+                        "attendee_availabilities",
+                        Seeder.availabilities(dataset.hotSlots(), random)));
+            } else {
+                var email = pick(dataset.hotAttendees(), random);
+                api.updateAvailability(dataset.hotEventId(), email,
+                        Seeder.availabilities(dataset.hotSlots(), random));
+            }
+        }
+    },
+
+    /**
+     * Browsing and searching the event list through a few pages, then opening an event.
+     */
+    BROWSE {
+        @Override
+        void run(ApiClient api, Dataset dataset, ThreadLocalRandom random) {
+            // half of the seeded events are public, the other half private
+            var eventType = random.nextBoolean() ? "PUBLIC" : "PRIVATE";
+            var query = "event_type=" + eventType + "&" + switch (random.nextInt(4)) {
+                case 0 -> "page_size=20&attendees=COUNT";
+                case 1 -> "page_size=20&attendees=COUNT&title=" + pick(Seeder.WORDS, random);
+                case 2 -> "page_size=20&attendees=NONE&organizer_email="
+                        + pick(dataset.organizerEmails(), random);
+                default -> "page_size=20&attendees=COUNT&attendee_email="
+                        + pick(dataset.attendeeEmails(), random);
+            };
+
+            String cursor = null;
+            for (int page = 0; page < 3; page++) {
+                cursor = api.findEvents(query, cursor).orElse(null);
+                if (cursor == null) {
+                    break;
+                }
+            }
+
+            api.getEvent(pick(dataset.eventIds(), random), random.nextBoolean() ? "FULL" : "COUNT");
+        }
+    },
+
+    /**
+     * Event lists and detail pages loading their images.
+     */
+    IMAGES {
+        @Override
+        void run(ApiClient api, Dataset dataset, ThreadLocalRandom random) {
+            var eventId = pick(dataset.imageEventIds(), random);
+            api.getImage(eventId, random.nextInt(4) == 0 ? "DETAIL" : "LIST");
+        }
+    },
+
+    /**
+     * All of the above, weighted like the production traffic: mostly browsing, then images,
+     * then RSVPs.
+     */
+    MIXED {
+        @Override
+        void run(ApiClient api, Dataset dataset, ThreadLocalRandom random) {
+            var roll = random.nextInt(100);
+            if (roll < 50) {
+                BROWSE.run(api, dataset, random);
+            } else if (roll < 85) {
+                IMAGES.run(api, dataset, random);
+            } else {
+                RSVP_STORM.run(api, dataset, random);
+            }
+        }
+    };
+
+    abstract void run(ApiClient api, Dataset dataset, ThreadLocalRandom random);
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.rsvpplaner.service;
+
+import static java.time.ZoneOffset.UTC;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rsvpplaner.repository.model.EventParticipant;
+import com.rsvpplaner.repository.model.EventParticipantAvailability;
+import com.rsvpplaner.repository.model.EventTimes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rsvplaner.v1.model.Attendee;
+import rsvplaner.v1.model.AttendeeAvailability;
+import rsvplaner.v1.model.AttendeeView;
+import rsvplaner.v1.model.Event;
+import rsvplaner.v1.model.EventDateTimesInner;
+import rsvplaner.v1.model.EventType;
+import rsvplaner.v1.model.NewEvent;
+import rsvplaner.v1.model.Organizer;
+
+/**
+ * Measures the mappings between the API model and the entities that run on every request, and the
+ * JSON serialization of the mapped event, across events of different size. Run with the gc
+ * profiler (the default of the jmh profile) to see the allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMappingBenchmark {
+
+    @Param({"1", "100", "5000"})
+    int attendees;
+
+    @Param({"1", "10", "50"})
+    int slots;
+
+    private final JsonMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private NewEvent newEvent;
+    private com.rsvpplaner.repository.model.Event dbEvent;
+    private Attendee attendee;
+    private Event apiEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var start = Instant.parse("2024-06-01T18:00:00Z");
+        var dateTimes = new ArrayList<EventDateTimesInner>();
+        for (int i = 0; i < slots; i++) {
+            var slotStart = start.plus(Duration.ofDays(i));
+            dateTimes.add(new EventDateTimesInner()
+                    .startTime(slotStart.atOffset(UTC))
+                    .endTime(slotStart.plus(Duration.ofHours(4)).atOffset(UTC)));
+        }
+
+        newEvent = new NewEvent()
+                .title("Summer party")
+                .description("Bring something to grill")
+                .location("Park")
+                .locationDescription("Next to the lake")
+                .eventType(EventType.PRIVATE)
+                .organizer(new Organizer().name("Organizer").email("organizer@example.com"))
+                .possibleDateTimes(dateTimes);
+
+        dbEvent = EventService.mapToDbEvent(newEvent);
+        var participants = new ArrayList<EventParticipant>(attendees);
+        for (int i = 0; i < attendees; i++) {
+            var participant = EventParticipant.builder()
+                    .id(Ids.next())
+                    .email("attendee" + i + "@example.com")
+                    .name("Attendee " + i)
+                    .participantType(EventParticipant.ParticipantType.ATTENDEE)
+                    .event(dbEvent)
+                    .build();
+            participant.setAvailabilities(availabilities(participant, dbEvent.getEventTimes(), i));
+            participants.add(participant);
+        }
+        dbEvent.setEventParticipants(participants);
+
+        attendee = new Attendee()
+                .email("new@example.com")
+                .name("New attendee")
+                .attendeeAvailabilities(dateTimes.stream()
+                        .map(d -> new AttendeeAvailability()
+                                .startTime(d.getStartTime())
+                                .endTime(d.getEndTime())
+                                .status(AttendeeAvailability.StatusEnum.ACCEPTED))
+                        .toList());
+
+        apiEvent = EventService.mapEvent(dbEvent, AttendeeView.FULL, 0);
+    }
+
+    private static List<EventParticipantAvailability> availabilities(EventParticipant participant,
+            List<EventTimes> eventTimes, int ordinal) {
+        var statuses = AttendeeAvailability.StatusEnum.values();
+        var availabilities = new ArrayList<EventParticipantAvailability>(eventTimes.size());
+        for (int i = 0; i < eventTimes.size(); i++) {
+            availabilities.add(EventParticipantAvailability.builder()
+                    .id(Ids.next())
+                    .event(participant.getEvent())
+                    .participant(participant)
+                    .startTime(eventTimes.get(i).getStartTime())
+                    .endTime(eventTimes.get(i).getEndTime())
+                    .status(statuses[(ordinal + i) % statuses.length])
+                    .build());
+        }
+        return availabilities;
+    }
+
+    @Benchmark
+    public com.rsvpplaner.repository.model.Event mapToDbEvent() {
+        return EventService.mapToDbEvent(newEvent);
+    }
+
+    @Benchmark
+    public Event mapToApiEvent() {
+        return EventService.mapEvent(dbEvent, AttendeeView.FULL, 0);
+    }
+
+    /**
+     * The validation and mapping of a new attendee with one availability per possible time, as
+     * done by addEventAttendee and the bulk import.
+     */
+    @Benchmark
+    public EventParticipant mapNewParticipant() {
+        return EventService.mapNewParticipant(dbEvent, EventService.slotsOf(dbEvent), attendee);
+    }
+
+    @Benchmark
+    public byte[] serializeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(apiEvent);
+    }
+}
@@ -0,0 +1,43 @@
+package com.rsvpplaner.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Mapped API events by event id. Entries are evicted by every mutating event operation.
+     */
+    public static final String EVENT_CACHE = "events";
+
+    @Value("${rsvplaner.cache.events.maximum-size}")
+    private long eventCacheMaximumSize;
+
+    @Value("${rsvplaner.cache.events.ttl}")
+    private Duration eventCacheTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(eventCacheMaximumSize)
+                .expireAfterWrite(eventCacheTtl)
+                .recordStats());
+        cacheManager.setCacheNames(List.of(EVENT_CACHE));
+
+        // the event operations evict after TransactionRetry committed, so their evictions take
+        // effect right away. Evictions from inside a transaction are deferred until it committed,
+        // an earlier eviction would let a concurrent read cache the state before the commit again
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,94 @@
+package com.rsvpplaner.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a request is handled and records them per
+ * endpoint as {@code rsvplaner.http.server.statements}. Statements are counted on the request
+ * thread, so the pages a streamed export reads after the handler returned are not included. An
+ * asynchronous request is recorded once, when its handler returned, and not again when the
+ * container dispatches it to complete the response.
+ */
+@Configuration
+public class MetricsConfig {
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        StatementInspector inspector = sql -> {
+            var statements = STATEMENTS.get();
+            if (statements != null) {
+                statements[0]++;
+            }
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public WebMvcConfigurer statementMetrics(MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(@NotNull InterceptorRegistry registry) {
+                registry.addInterceptor(new AsyncHandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(@NotNull HttpServletRequest request,
+                            @NotNull HttpServletResponse response, @NotNull Object handler) {
+                        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+                            STATEMENTS.set(new int[1]);
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public void afterConcurrentHandlingStarted(@NotNull HttpServletRequest request,
+                            @NotNull HttpServletResponse response, @NotNull Object handler) {
+                        record(request);
+                    }
+
+                    @Override
+                    public void afterCompletion(@NotNull HttpServletRequest request,
+                            @NotNull HttpServletResponse response, @NotNull Object handler,
+                            Exception ex) {
+                        record(request);
+                    }
+
+                    /**
+                     * Records the statements of the request and stops counting on this thread,
+                     * which may go on to serve other requests.
+                     */
+                    private void record(HttpServletRequest request) {
+                        var statements = STATEMENTS.get();
+                        STATEMENTS.remove();
+                        if (statements == null) {
+                            return;
+                        }
+
+                        var uri = request.getAttribute(
+                                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                        DistributionSummary.builder("rsvplaner.http.server.statements")
+                                .description("SQL statements prepared per request")
+                                .tag("method", request.getMethod())
+                                .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                                .register(meterRegistry)
+                                .record(statements[0]);
+                    }
+                });
+            }
+        };
+    }
+}
@@ -1,18 +1,37 @@
 package com.rsvpplaner.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 public class ObjectStorage {
 
+    /**
+     * Client that only signs URLs handed out to clients, so it uses the host clients reach the
+     * object storage at. Signing never contacts the object storage because the region is set.
+     */
+    public static final String PRESIGNING_CLIENT = "presigningMinioClient";
+
+    private static final long MINIO_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
     @Value("${minio.host}")
     private String minioHost;
 
+    @Value("${minio.public-host}")
+    private String minioPublicHost;
+
+    @Value("${minio.region}")
+    private String minioRegion;
+
     @Value("${minio.username}")
     private String minioUsername;
 
@@ -23,10 +42,25 @@ public class ObjectStorage {
     private String minioBucket;
 
     @Bean
-    public MinioClient minioClient() {
+    @Primary
+    public MinioClient minioClient(MeterRegistry meterRegistry) {
+        // the default client of MinIO with a listener that times every call as
+        // rsvplaner.minio.requests, object names are left out of the uri tag to bound its values
+        var httpClient = HttpUtils.newDefaultHttpClient(MINIO_TIMEOUT, MINIO_TIMEOUT,
+                        MINIO_TIMEOUT)
+                .newBuilder()
+                .eventListener(OkHttpMetricsEventListener.builder(meterRegistry,
+                                "rsvplaner.minio.requests")
+                        .uriMapper(request -> request.url().pathSize() > 1
+                                ? "/{bucket}/{object}" : "/{bucket}")
+                        .build())
+                .build();
+
         var client = MinioClient.builder()
                 .endpoint(minioHost)
+                .region(minioRegion)
                 .credentials(minioUsername, minioPassword)
+                .httpClient(httpClient)
                 .build();
 
         try {
@@ -41,4 +75,13 @@ public class ObjectStorage {
 
         return client;
     }
+
+    @Bean(PRESIGNING_CLIENT)
+    public MinioClient presigningMinioClient() {
+        return MinioClient.builder()
+                .endpoint(minioPublicHost)
+                .region(minioRegion)
+                .credentials(minioUsername, minioPassword)
+                .build();
+    }
 }
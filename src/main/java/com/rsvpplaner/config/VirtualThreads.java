@@ -0,0 +1,33 @@
+package com.rsvpplaner.config;
+
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Runs requests and async tasks, e.g. streamed responses, on virtual threads instead of the
+ * platform thread pools. All I/O of a request, JDBC as well as the synchronous MinIO client, blocks
+ * on the request thread, so a request waiting for Postgres or MinIO no longer holds one of the 200
+ * Tomcat threads. The connection pool stays the bound for the database, see
+ * {@code spring.datasource.hikari.maximum-pool-size}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rsvplaner.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreads {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadRequestExecutor() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,233 @@
+package com.rsvpplaner.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.http.HttpStatus;
+import rsvplaner.v1.model.Attendee;
+import rsvplaner.v1.model.AttendeeAvailability;
+import rsvplaner.v1.model.EventDateTimesInner;
+
+/**
+ * CSV representation of attendees: one row per attendee with the columns email, name and notify
+ * followed by one column per possible time of the event holding the status of the attendee. The
+ * possible times are named as ISO 8601 intervals, e.g. 2024-06-01T18:00Z/2024-06-01T22:00Z.
+ * Values that a spreadsheet would evaluate as a formula are written with a leading {@code '}.
+ */
+final class AttendeeCsv {
+    private static final String EMAIL = "email";
+    private static final String NAME = "name";
+    private static final String NOTIFY = "notify";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private AttendeeCsv() {
+    }
+
+    static String header(List<EventDateTimesInner> dateTimes) {
+        return Stream.concat(Stream.of(EMAIL, NAME, NOTIFY),
+                        dateTimes.stream().map(d -> d.getStartTime() + "/" + d.getEndTime()))
+                .map(AttendeeCsv::field)
+                .collect(Collectors.joining(",", "", "\r\n"));
+    }
+
+    static String row(Attendee attendee, List<EventDateTimesInner> dateTimes) {
+        var row = new StringBuilder()
+                .append(field(attendee.getEmail())).append(',')
+                .append(field(attendee.getName())).append(',')
+                .append(Boolean.TRUE.equals(attendee.isNotify()));
+
+        for (var dateTime : dateTimes) {
+            var status = attendee.getAttendeeAvailabilities().stream()
+                    .filter(a -> a.getStartTime().isEqual(dateTime.getStartTime())
+                            && a.getEndTime().isEqual(dateTime.getEndTime()))
+                    .map(AttendeeAvailability::getStatus)
+                    .findFirst()
+                    .map(AttendeeAvailability.StatusEnum::getValue)
+                    .orElse("");
+            row.append(',').append(status);
+        }
+
+        return row.append("\r\n").toString();
+    }
+
+    /**
+     * Reads attendees in the format written by {@link #header} and {@link #row}. Columns are
+     * matched by their header, unknown columns and empty status cells are ignored.
+     *
+     * @param maxAttendees maximum number of rows after the header, reading stops as soon as the
+     *                     CSV has more
+     * @throws ErrorResponseException with status 400 if the CSV is malformed or has more rows
+     */
+    static List<Attendee> read(Reader reader, int maxAttendees) throws IOException {
+        var records = parse(new BufferedReader(reader), maxAttendees + 1);
+        if (records.isEmpty()) {
+            return List.of();
+        }
+
+        var header = records.get(0);
+        var emailColumn = header.indexOf(EMAIL);
+        if (emailColumn < 0) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    "CSV header must contain an email column");
+        }
+        var nameColumn = header.indexOf(NAME);
+        var notifyColumn = header.indexOf(NOTIFY);
+
+        var dateTimeColumns = new ArrayList<Integer>();
+        var dateTimes = new ArrayList<EventDateTimesInner>();
+        for (int i = 0; i < header.size(); i++) {
+            var interval = header.get(i).split("/");
+            if (interval.length != 2) {
+                continue;
+            }
+
+            try {
+                dateTimes.add(new EventDateTimesInner()
+                        .startTime(OffsetDateTime.parse(interval[0]))
+                        .endTime(OffsetDateTime.parse(interval[1])));
+                dateTimeColumns.add(i);
+            } catch (DateTimeParseException e) {
+                throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                        String.format("CSV column %s is not a valid time interval",
+                                header.get(i)));
+            }
+        }
+
+        var attendees = new ArrayList<Attendee>(records.size() - 1);
+        for (var record : records.subList(1, records.size())) {
+            var attendee = new Attendee()
+                    .email(unescapeFormula(cell(record, emailColumn)))
+                    .name(unescapeFormula(cell(record, nameColumn)))
+                    .notify(Boolean.parseBoolean(cell(record, notifyColumn)))
+                    .attendeeAvailabilities(new ArrayList<>());
+
+            for (int i = 0; i < dateTimeColumns.size(); i++) {
+                var status = cell(record, dateTimeColumns.get(i));
+                if (status == null) {
+                    continue;
+                }
+
+                try {
+                    attendee.addAttendeeAvailabilitiesItem(new AttendeeAvailability()
+                            .startTime(dateTimes.get(i).getStartTime())
+                            .endTime(dateTimes.get(i).getEndTime())
+                            .status(AttendeeAvailability.StatusEnum.fromValue(status)));
+                } catch (IllegalArgumentException e) {
+                    throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                            String.format("unknown availability status %s", status));
+                }
+            }
+
+            attendees.add(attendee);
+        }
+
+        return attendees;
+    }
+
+    private static String cell(List<String> record, int column) {
+        if (column < 0 || column >= record.size() || record.get(column).isBlank()) {
+            return null;
+        }
+        return record.get(column).strip();
+    }
+
+    /**
+     * Removes the {@code '} that {@link #field} puts in front of values starting like a formula.
+     */
+    private static String unescapeFormula(String value) {
+        if (value != null && value.length() > 1 && value.charAt(0) == '\''
+                && FORMULA_PREFIXES.indexOf(value.charAt(1)) >= 0) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    /**
+     * Splits RFC 4180 CSV into at most {@code maxRecords} records of fields. Blank lines are
+     * skipped.
+     */
+    private static List<List<String>> parse(BufferedReader reader, int maxRecords)
+            throws IOException {
+        var records = new ArrayList<List<String>>();
+        var record = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                endRecord(records, record, field);
+                record = new ArrayList<>();
+                if (records.size() > maxRecords) {
+                    throw tooManyRecords(maxRecords);
+                }
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    "CSV ends inside a quoted field");
+        }
+        endRecord(records, record, field);
+        if (records.size() > maxRecords) {
+            throw tooManyRecords(maxRecords);
+        }
+        return records;
+    }
+
+    private static ErrorResponseException tooManyRecords(int maxRecords) {
+        return new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                String.format("at most %d attendees can be imported at once", maxRecords - 1));
+    }
+
+    private static void endRecord(List<List<String>> records, List<String> record,
+            StringBuilder field) {
+        record.add(field.toString());
+        field.setLength(0);
+        if (record.size() > 1 || !record.get(0).isEmpty()) {
+            records.add(record);
+        }
+    }
+
+    static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")
+                || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        return value;
+    }
+}
@@ -6,6 +6,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -26,6 +28,19 @@ public class ErrorHandler {
                 .body(new ErrorResponse().error(ex.getMessage()));
     }
 
+    /**
+     * No database connection became free within the connection timeout of the pool.
+     */
+    @ExceptionHandler(value = {CannotCreateTransactionException.class,
+            CannotGetJdbcConnectionException.class})
+    protected ResponseEntity<ErrorResponse> connectionUnavailableHandler(Exception ex,
+            WebRequest request) {
+        log.warn("no database connection available: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse().error("the service is busy, please try again"));
+    }
+
     @ExceptionHandler(value = {Exception.class})
     protected ResponseEntity<ErrorResponse> exceptionHandler(Exception ex, WebRequest request) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,90 @@
+package com.rsvpplaner.controller;
+
+import com.rsvpplaner.service.CursorPage;
+import com.rsvpplaner.service.EventService;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import rsvplaner.v1.model.Attendee;
+import rsvplaner.v1.model.AttendeeImportResult;
+import rsvplaner.v1.model.AttendeeView;
+import rsvplaner.v1.model.EventDateTimesInner;
+
+/**
+ * Streams all attendees of an event, one per line, as NDJSON or CSV, and imports attendees from
+ * CSV. The attendees are exported in keyset pages on demand of the response, so only about one
+ * page is held in memory no matter how large the event is. Not part of the generated API since its
+ * interface can neither return a stream nor consume CSV.
+ */
+@RestController
+@RequestMapping("${openapi.rSVPlaner.base-path:}")
+public class EventAttendeesController {
+    private static final String ATTENDEES_PATH = "/v1/event/{event_id}/attendees";
+    private static final String EXPORT_PATH = ATTENDEES_PATH + "/export";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final int PAGE_SIZE = 500;
+
+    private final EventService eventService;
+
+    public EventAttendeesController(EventService eventService) {
+        this.eventService = eventService;
+    }
+
+    @GetMapping(path = EXPORT_PATH, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Attendee> exportAttendees(@PathVariable("event_id") String eventId) {
+        return attendees(eventId);
+    }
+
+    /**
+     * Exports one row per attendee with the status of every possible time of the event in its own
+     * column, in chronological order.
+     */
+    @GetMapping(path = EXPORT_PATH, produces = TEXT_CSV_VALUE)
+    public Flux<String> exportAttendeesCsv(@PathVariable("event_id") String eventId) {
+        var dateTimes = eventService.getEvent(eventId, AttendeeView.NONE).getDateTimes().stream()
+                .sorted(Comparator.comparing(EventDateTimesInner::getStartTime)
+                        .thenComparing(EventDateTimesInner::getEndTime))
+                .toList();
+
+        return Flux.just(AttendeeCsv.header(dateTimes))
+                .concatWith(attendees(eventId).map(a -> AttendeeCsv.row(a, dateTimes)));
+    }
+
+    /**
+     * Imports attendees from CSV in the format of the export, so an exported file can be edited and
+     * imported into another event. See {@code importEventAttendees} in the API for the result.
+     * The row limit of the import is enforced while reading, so an oversized upload is rejected
+     * without parsing it completely.
+     */
+    @PostMapping(path = ATTENDEES_PATH, consumes = TEXT_CSV_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<AttendeeImportResult> importAttendeesCsv(@PathVariable("event_id") String eventId,
+            Reader body) throws IOException {
+        return eventService.importAttendees(eventId,
+                AttendeeCsv.read(body, EventService.MAX_IMPORTED_ATTENDEES));
+    }
+
+    private Flux<Attendee> attendees(String eventId) {
+        // the first page is fetched right away so that an unknown event, or a public one whose
+        // attendees are not disclosed, fails the request before the response is committed
+        var firstPage = eventService.getAttendees(eventId, PAGE_SIZE, null);
+
+        return Flux.just(firstPage)
+                .expand(page -> page.nextCursor() == null
+                        ? Mono.empty()
+                        : Mono.fromCallable(() -> eventService.getAttendees(eventId, PAGE_SIZE,
+                                        page.nextCursor()))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .concatMapIterable(CursorPage::items, 1);
+    }
+}
@@ -1,31 +1,60 @@
 package com.rsvpplaner.controller;
 
+import com.rsvpplaner.service.EventImage;
+import com.rsvpplaner.service.EventImageService;
 import com.rsvpplaner.service.EventService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import rsvplaner.v1.api.EventApi;
 import rsvplaner.v1.model.Attendee;
 import rsvplaner.v1.model.AttendeeAvailability;
+import rsvplaner.v1.model.AttendeeImportResult;
+import rsvplaner.v1.model.AttendeeView;
 import rsvplaner.v1.model.Event;
 import rsvplaner.v1.model.EventType;
+import rsvplaner.v1.model.ImageSize;
 import rsvplaner.v1.model.InvitedPerson;
 import rsvplaner.v1.model.NewEvent;
+import rsvplaner.v1.model.PresignedUrl;
+import rsvplaner.v1.model.SlotSummary;
 
 @Controller
 public class EventController implements EventApi {
     private static final Logger log = LoggerFactory.getLogger(EventController.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_ATTENDEES_PAGE_SIZE = 100;
+    private static final int MAX_EVENTS_PAGE_SIZE = 100;
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
     private final EventService eventService;
+    private final EventImageService eventImageService;
+    private final HttpServletRequest request;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, EventImageService eventImageService,
+            HttpServletRequest request) {
         this.eventService = eventService;
+        this.eventImageService = eventImageService;
+        this.request = request;
     }
 
     @Override
@@ -56,6 +85,19 @@ public class EventController implements EventApi {
                     "at least one possible date time must be given");
         }
 
+        for (var dateTime : newEvent.getPossibleDateTimes()) {
+            if (dateTime.getStartTime() == null || dateTime.getEndTime() == null) {
+                throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                        "possible date time start and end time must be set");
+            }
+
+            // the search indexes the possible times as ranges, which cannot end before they start
+            if (dateTime.getStartTime().isAfter(dateTime.getEndTime())) {
+                throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                        "possible date time must not end before it starts");
+            }
+        }
+
         if (newEvent.getEventType() == EventType.PUBLIC
             && newEvent.getPossibleDateTimes().size() != 1) {
             throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
@@ -72,21 +114,58 @@ public class EventController implements EventApi {
     }
 
     @Override
-    public ResponseEntity<Event> getEvent(String eventId) {
-        return ResponseEntity.ok(eventService.getEvent(eventId));
+    public ResponseEntity<Event> getEvent(String eventId, AttendeeView attendees) {
+        return ResponseEntity.ok(eventService.getEvent(eventId,
+                attendees != null ? attendees : AttendeeView.FULL));
+    }
+
+    @Override
+    public ResponseEntity<List<Attendee>> getEventAttendees(String eventId, Integer pageSize,
+            String cursor) {
+        if (pageSize == null) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST, "page size must be set");
+        }
+
+        if (pageSize < 1 || pageSize > MAX_ATTENDEES_PAGE_SIZE) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    String.format("page size must be between 1 and %d", MAX_ATTENDEES_PAGE_SIZE));
+        }
+
+        var page = eventService.getAttendees(eventId, pageSize, cursor);
+
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @Override
+    public ResponseEntity<SlotSummary> getEventSlotSummary(String eventId) {
+        return ResponseEntity.ok(eventService.getSlotSummary(eventId));
     }
 
     @Override
     public ResponseEntity<List<Event>> findEvents(Integer pageNumber, Integer pageSize,
             EventType eventType, String title, String organizerEmail, String attendeeEmail,
             OffsetDateTime startDate,
-            OffsetDateTime endDate) {
+            OffsetDateTime endDate, String cursor, AttendeeView attendees) {
 
         if (pageNumber == null || pageSize == null) {
             throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
                     "page offset and page size must be set");
         }
 
+        if (pageNumber < 0) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    "page offset must not be negative");
+        }
+
+        if (pageSize < 1 || pageSize > MAX_EVENTS_PAGE_SIZE) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    String.format("page size must be between 1 and %d", MAX_EVENTS_PAGE_SIZE));
+        }
+
         if (eventType == null) {
             throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
                     "event type is not set");
@@ -107,16 +186,22 @@ public class EventController implements EventApi {
                     "start date must be before end date");
         }
 
-        return ResponseEntity.ok(
-                eventService.findEvents(pageNumber, pageSize,
-                        eventType, title, attendeeEmail, organizerEmail,
-                        startDate != null ? startDate.toInstant() : null,
-                        endDate != null ? endDate.toInstant() : null));
+        var page = eventService.findEvents(pageNumber, pageSize, cursor,
+                eventType, title, attendeeEmail, organizerEmail,
+                startDate != null ? startDate.toInstant() : null,
+                endDate != null ? endDate.toInstant() : null,
+                attendees != null ? attendees : AttendeeView.FULL);
+
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @Override
     public ResponseEntity<Void> uploadEventImage(String eventId, Resource body) {
-        eventService.uploadImage(eventId, body);
+        eventImageService.uploadImage(eventId, body);
         return null;
     }
 
@@ -126,8 +211,135 @@ public class EventController implements EventApi {
     }
 
     @Override
-    public ResponseEntity<Resource> getEventImage(String eventId) {
-        return ResponseEntity.ok(eventService.getEventImage(eventId));
+    public ResponseEntity<List<AttendeeImportResult>> importEventAttendees(String eventId,
+            List<Attendee> attendee) {
+        return ResponseEntity.ok(eventService.importAttendees(eventId, attendee));
+    }
+
+    @Override
+    public ResponseEntity<Resource> getEventImage(String eventId, ImageSize size, String range) {
+        var imageSize = size != null ? size : ImageSize.ORIGINAL;
+        if (eventImageService.redirectsDownloads()) {
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(eventImageService.getEventImageUrl(eventId, imageSize))
+                    .build();
+        }
+
+        var image = eventImageService.getEventImage(eventId, imageSize, parseSingleRange(range));
+        return toImageResponse(image);
+    }
+
+    @Override
+    public ResponseEntity<PresignedUrl> getEventImageUploadUrl(String eventId) {
+        var uploadUrl = eventImageService.createEventImageUploadUrl(eventId);
+        return ResponseEntity.ok(new PresignedUrl()
+                .url(uploadUrl.url().toString())
+                .expiresAt(uploadUrl.expiresAt().atOffset(ZoneOffset.UTC)));
+    }
+
+    @Override
+    public ResponseEntity<Void> confirmEventImageUpload(String eventId) {
+        eventImageService.confirmImageUpload(eventId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Streams the image content to the client. The content length is always set, so the message
+     * converter copies the stream with a fixed size buffer instead of buffering it to determine
+     * the length. The range, if any, is applied by the service. MVC applies the Range header of
+     * the request to every other resource body itself, so the body must stay a plain
+     * {@link InputStreamResource}, which MVC excludes, or a multiple or invalid range ignored by
+     * {@link #parseSingleRange} would be applied to the stream a second time.
+     */
+    private ResponseEntity<Resource> toImageResponse(EventImage image) {
+        if (image.file() != null) {
+            return toCachedImageResponse(image);
+        }
+
+        var response = ResponseEntity
+                .status(image.range() != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .contentLength(image.contentLength());
+
+        if (image.etag() != null) {
+            response.eTag(image.etag());
+        }
+
+        if (image.range() != null) {
+            response.header(HttpHeaders.CONTENT_RANGE, image.range().toHeaderValue());
+        }
+
+        return response.body(new InputStreamResource(image.content()));
+    }
+
+    /**
+     * Serves an image from the local disk cache. If the servlet container supports it, the file
+     * is handed to Tomcat, which sends it with sendfile without copying it through the JVM.
+     * Otherwise the file is returned as resource, for which Spring handles range requests itself.
+     */
+    private ResponseEntity<Resource> toCachedImageResponse(EventImage image) {
+        var etag = "\"" + image.etag() + "\"";
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        if (!Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT))
+                || !HttpMethod.GET.matches(request.getMethod())) {
+            var response = ResponseEntity.ok()
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(MediaType.parseMediaType(image.contentType()))
+                    .eTag(etag);
+
+            if (image.range() != null) {
+                return response.body(new FileSystemResource(image.file()));
+            }
+
+            // without a single valid range the whole image is served, MVC would answer multiple
+            // ranges with a multipart response and invalid ones with 416 for a file resource
+            try {
+                return response.contentLength(image.contentLength())
+                        .body(new InputStreamResource(Files.newInputStream(image.file())));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        var range = image.range();
+        request.setAttribute(TOMCAT_SENDFILE_FILENAME, image.file().toAbsolutePath().toString());
+        request.setAttribute(TOMCAT_SENDFILE_START, range != null ? range.start() : 0L);
+        request.setAttribute(TOMCAT_SENDFILE_END,
+                range != null ? range.end() + 1 : image.contentLength());
+
+        var response = ResponseEntity
+                .status(range != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .contentLength(image.contentLength())
+                .eTag(etag);
+
+        if (range != null) {
+            response.header(HttpHeaders.CONTENT_RANGE, range.toHeaderValue());
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Only a single byte range is served as partial content. Invalid or multiple ranges are
+     * ignored and the whole image is returned instead, which is allowed by RFC 9110.
+     */
+    private static HttpRange parseSingleRange(String range) {
+        if (StringUtils.isBlank(range)) {
+            return null;
+        }
+
+        try {
+            var ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     @Override
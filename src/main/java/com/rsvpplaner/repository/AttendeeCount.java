@@ -0,0 +1,13 @@
+package com.rsvpplaner.repository;
+
+import java.util.UUID;
+
+/**
+ * Number of participants of an event.
+ */
+public interface AttendeeCount {
+
+    UUID getEventId();
+
+    long getAttendeeCount();
+}
@@ -0,0 +1,37 @@
+package com.rsvpplaner.repository;
+
+import com.rsvpplaner.repository.model.Event;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (title, id) ordering of an event search. Handed to clients as an opaque token
+ * so that the next page can be fetched by seeking past the last returned event instead of
+ * skipping an offset.
+ */
+public record EventCursor(String title, UUID id) {
+
+    public static EventCursor after(Event event) {
+        return new EventCursor(event.getTitle(), event.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not created by {@link #encode()}
+     */
+    public static EventCursor decode(String token) {
+        var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        // ids never contain a colon, titles may
+        var separator = value.indexOf(':');
+        if (separator < 1) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        return new EventCursor(value.substring(separator + 1),
+                UUID.fromString(value.substring(0, separator)));
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + title).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,14 +2,19 @@ package com.rsvpplaner.repository;
 
 import com.rsvpplaner.repository.model.EventParticipant;
 import jakarta.transaction.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface EventParticipantRepository extends JpaRepository<EventParticipant, String> {
+public interface EventParticipantRepository extends JpaRepository<EventParticipant, UUID> {
 
     @Query(
             value =
@@ -19,7 +24,7 @@ public interface EventParticipantRepository extends JpaRepository<EventParticipa
                             WHERE ep.event_id = ?1 AND ep.email = ?2
                             """,
             nativeQuery = true)
-    Optional<EventParticipant> findByEventIdAndEmail(String eventId, String email);
+    Optional<EventParticipant> findByEventIdAndEmail(UUID eventId, String email);
 
     @Modifying
     @Transactional
@@ -31,7 +36,7 @@ public interface EventParticipantRepository extends JpaRepository<EventParticipa
                             WHERE ep.event_id = ?1 AND ep.email = ?2
                             """,
             nativeQuery = true)
-    void updateNotify(String eventId, String email, boolean notify);
+    void updateNotify(UUID eventId, String email, boolean notify);
 
     @Query(
             value =
@@ -43,5 +48,41 @@ public interface EventParticipantRepository extends JpaRepository<EventParticipa
                             )
                             """,
             nativeQuery = true)
-    boolean existsByEventIdAndEmail(String eventId, String email);
+    boolean existsByEventIdAndEmail(UUID eventId, String email);
+
+    @EntityGraph(EventParticipant.AVAILABILITY_GRAPH)
+    List<EventParticipant> findWithAvailabilitiesByEventIdIn(Collection<UUID> eventIds);
+
+    @EntityGraph(EventParticipant.AVAILABILITY_GRAPH)
+    List<EventParticipant> findWithAvailabilitiesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Returns the participants of the event whose email comes after the given one, ordered by
+     * email. Seeks on the (event_id, email) index.
+     */
+    @Query("""
+            SELECT p
+            FROM EventParticipant p
+            WHERE p.event.id = ?1
+            AND p.email > ?2
+            ORDER BY p.email
+            """)
+    List<EventParticipant> findByEventIdAfterEmail(UUID eventId, String afterEmail,
+            Pageable pageable);
+
+    @Query("""
+            SELECT p.email
+            FROM EventParticipant p
+            WHERE p.event.id = ?1
+            AND p.email IN ?2
+            """)
+    List<String> findEmailsByEventIdAndEmailIn(UUID eventId, Collection<String> emails);
+
+    @Query("""
+            SELECT p.event.id AS eventId, count(p) AS attendeeCount
+            FROM EventParticipant p
+            WHERE p.event.id IN ?1
+            GROUP BY p.event.id
+            """)
+    List<AttendeeCount> countByEventIdIn(Collection<UUID> eventIds);
 }
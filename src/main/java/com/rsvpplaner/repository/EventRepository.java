@@ -1,23 +1,148 @@
 package com.rsvpplaner.repository;
 
 import com.rsvpplaner.repository.model.Event;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import rsvplaner.v1.model.EventType;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, String> {
-
-    @Query("""
-            SELECT e
-            FROM Event e
-                LEFT JOIN e.eventParticipants ep
-            WHERE ep.email = ?1
-            AND e.eventType = ?2
-            """)
-    Page<Event> findAllByExampleAndParticipantEmail(String email, EventType evenType,
-            Pageable pageable);
+public interface EventRepository extends JpaRepository<Event, UUID>, EventRepositoryCustom {
+
+    /**
+     * Condition on an event {@code e} whose accepted counter, including its shards, differs from
+     * the number of participants that accepted one of its possible times.
+     */
+    String ACCEPTED_COUNT_DRIFTED = """
+            e.accepted_count + (
+                SELECT coalesce(sum(d.delta), 0)
+                FROM event_accepted_count_delta d
+                WHERE d.event_id = e.id
+            ) <> (
+                SELECT count(DISTINCT epa.event_participant_id)
+                FROM event_participant_availability epa
+                WHERE epa.event_id = e.id AND epa.status = 'ACCEPTED'
+            )
+            """;
+
+    @EntityGraph(Event.TIMES_GRAPH)
+    Optional<Event> findTimesViewById(UUID id);
+
+    @EntityGraph(Event.TIMES_GRAPH)
+    List<Event> findTimesViewByIdIn(Collection<UUID> ids);
+
+    @EntityGraph(Event.ATTENDEE_GRAPH)
+    Optional<Event> findAttendeeViewById(UUID id);
+
+    @EntityGraph(Event.ATTENDEE_GRAPH)
+    List<Event> findAttendeeViewByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT e.eventType FROM Event e WHERE e.id = ?1")
+    Optional<EventType> findEventTypeById(UUID id);
+
+    /**
+     * Adds the delta to one shard of the accepted counter of the event. Concurrent changes of a
+     * popular event are spread over the shards instead of all waiting for the lock on its event
+     * row. The event row is only key share locked, which concurrent changes do not wait for, but
+     * {@link #lockById(UUID)} does.
+     */
+    @Modifying
+    @Query(
+            value =
+                    """
+                            WITH e AS (SELECT id FROM event WHERE id = ?1 FOR KEY SHARE)
+                            INSERT INTO event_accepted_count_delta (event_id, shard, delta)
+                            SELECT id, ?2, ?3 FROM e
+                            ON CONFLICT (event_id, shard) DO UPDATE
+                                SET delta = event_accepted_count_delta.delta + excluded.delta
+                            """,
+            nativeQuery = true)
+    void incrementAcceptedCount(UUID eventId, int shard, int delta);
+
+    /**
+     * Returns the ids of the events whose accepted counter differs from the number of
+     * participants that accepted one of their possible times.
+     */
+    @Query(
+            value =
+                    """
+                            SELECT e.id
+                            FROM event e
+                            WHERE """ + ACCEPTED_COUNT_DRIFTED,
+            nativeQuery = true)
+    List<UUID> findDriftedAcceptedCountIds();
+
+    @Query(
+            value =
+                    """
+                            SELECT EXISTS(
+                                SELECT 1
+                                FROM event e
+                                WHERE e.id = ?1 AND """ + ACCEPTED_COUNT_DRIFTED + ")",
+            nativeQuery = true)
+    boolean isAcceptedCountDrifted(UUID id);
+
+    /**
+     * Locks the event row until the end of the transaction, so that concurrent counter updates
+     * of the event wait for it.
+     */
+    @Query(value = "SELECT id FROM event WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockById(UUID id);
+
+    /**
+     * Recomputes the accepted counter of one event from its availabilities and removes its
+     * shards. The event must have been locked by {@link #lockById(UUID)} in a previous statement
+     * of the transaction, otherwise a change committed while this statement runs would be
+     * overwritten by the count from before it.
+     */
+    @Modifying
+    @Query(
+            value =
+                    """
+                            WITH deleted AS (
+                                DELETE FROM event_accepted_count_delta WHERE event_id = ?1
+                            )
+                            UPDATE event e
+                            SET accepted_count = (
+                                SELECT count(DISTINCT epa.event_participant_id)
+                                FROM event_participant_availability epa
+                                WHERE epa.event_id = ?1 AND epa.status = 'ACCEPTED'
+                            )
+                            WHERE e.id = ?1
+                            """,
+            nativeQuery = true)
+    void reconcileAcceptedCount(UUID id);
+
+    /**
+     * Aggregates the availabilities of an event into one row of counts per possible time.
+     */
+    @Query(
+            value =
+                    """
+                            SELECT t.id AS "slotId",
+                                   (SELECT count(*) FROM event_participant ep
+                                    WHERE ep.event_id = ?1) AS "participantCount",
+                                   count(DISTINCT a.event_participant_id)
+                                       FILTER (WHERE a.status = 'ACCEPTED') AS "accepted",
+                                   count(DISTINCT a.event_participant_id)
+                                       FILTER (WHERE a.status = 'DECLINED') AS "declined",
+                                   count(DISTINCT a.event_participant_id)
+                                       FILTER (WHERE a.status IN ('ACCEPTED', 'DECLINED'))
+                                       AS "answered"
+                            FROM event_times t
+                                LEFT JOIN event_participant_availability a
+                                    ON a.event_id = t.event_id
+                                    AND a.start_time = t.start_time
+                                    AND a.end_time = t.end_time
+                            WHERE t.event_id = ?1
+                            GROUP BY t.id
+                            """,
+            nativeQuery = true)
+    List<SlotAvailability> findSlotAvailabilities(UUID eventId);
 }
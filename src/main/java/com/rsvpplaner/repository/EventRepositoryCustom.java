@@ -0,0 +1,20 @@
+package com.rsvpplaner.repository;
+
+import com.rsvpplaner.repository.model.Event;
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Returns the events matching the search ordered by title and id. Unlike a {@code Page}
+     * query, no count query is issued.
+     */
+    List<Event> search(EventSearch search, int offset, int limit);
+
+    /**
+     * Returns the events matching the search that come after the cursor in the (title, id)
+     * ordering. Seeks on the (event_type, title, id) index, so every page costs the same
+     * regardless of how far the client has scrolled.
+     */
+    List<Event> searchAfter(EventSearch search, EventCursor after, int limit);
+}
@@ -0,0 +1,106 @@
+package com.rsvpplaner.repository;
+
+import com.rsvpplaner.repository.model.Event;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the event search query from the filters that are set, so the database only sees
+ * predicates it can use an index for, instead of generic {@code :param IS NULL OR ...} clauses.
+ */
+class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Event> search(EventSearch search, int offset, int limit) {
+        var parameters = new HashMap<String, Object>();
+        var query = buildQuery(search, parameters, "");
+
+        return createQuery(query, parameters)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Event> searchAfter(EventSearch search, EventCursor after, int limit) {
+        var parameters = new HashMap<String, Object>();
+        var query = buildQuery(search, parameters,
+                " AND (e.title, e.id) > (:afterTitle, :afterId)");
+        parameters.put("afterTitle", after.title());
+        parameters.put("afterId", after.id());
+
+        return createQuery(query, parameters)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<Event> createQuery(String query, Map<String, Object> parameters) {
+        var typedQuery = entityManager.createQuery(query, Event.class);
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery;
+    }
+
+    private static String buildQuery(EventSearch search, Map<String, Object> parameters,
+            String seekPredicate) {
+        var query = new StringBuilder("""
+                SELECT e
+                FROM Event e
+                WHERE e.eventType = :eventType
+                """);
+        parameters.put("eventType", search.eventType());
+
+        if (search.title() != null) {
+            // ILIKE on the plain column is what the pg_trgm index on title serves, lower(title)
+            // would need an expression index and forces a sequential scan without one
+            query.append(" AND e.title ILIKE :title ESCAPE '\\'");
+            parameters.put("title", "%" + escapeLike(search.title()) + "%");
+        }
+
+        if (search.attendeeEmail() != null) {
+            query.append("""
+                     AND EXISTS (
+                        SELECT 1
+                        FROM EventParticipant p
+                        WHERE p.event = e
+                        AND p.email = :attendeeEmail
+                    )
+                    """);
+            parameters.put("attendeeEmail", search.attendeeEmail());
+        }
+
+        if (search.organizerEmail() != null) {
+            query.append(" AND e.organizerEmail = :organizerEmail");
+            parameters.put("organizerEmail", search.organizerEmail());
+        }
+
+        if (search.startTime() != null && search.endTime() != null) {
+            // [t.startTime, t.endTime) overlaps [startTime, endTime). A btree index can only
+            // bound one side of the overlap, the GiST index on the ranges of event_times both
+            query.append("""
+                     AND EXISTS (
+                        SELECT 1
+                        FROM EventTimes t
+                        WHERE t.event = e
+                        AND %s(t.startTime, t.endTime, :startTime, :endTime)
+                    )
+                    """.formatted(TimeRangeFunctionContributor.OVERLAPS));
+            parameters.put("startTime", search.startTime());
+            parameters.put("endTime", search.endTime());
+        }
+
+        // id breaks ties between equal titles, so the order is total and a cursor is unambiguous
+        query.append(seekPredicate).append(" ORDER BY e.title ASC, e.id ASC");
+        return query.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
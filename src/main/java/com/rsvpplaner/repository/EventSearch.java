@@ -0,0 +1,17 @@
+package com.rsvpplaner.repository;
+
+import java.time.Instant;
+import rsvplaner.v1.model.EventType;
+
+/**
+ * Filter of an event search. Every filter except the event type is optional and only applied if
+ * it is not {@code null}.
+ *
+ * @param title         substring the title must contain, ignoring case
+ * @param attendeeEmail email of a participant the event must have
+ * @param startTime     together with {@code endTime} the time range [startTime, endTime) at least
+ *                      one possible time of the event must overlap with
+ */
+public record EventSearch(EventType eventType, String title, String attendeeEmail,
+                          String organizerEmail, Instant startTime, Instant endTime) {
+}
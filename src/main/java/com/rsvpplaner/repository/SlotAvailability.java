@@ -0,0 +1,20 @@
+package com.rsvpplaner.repository;
+
+import java.util.UUID;
+
+/**
+ * Number of participants of an event that accepted or declined one possible time, and that did
+ * either. A participant is counted once per slot even if they answered it more than once.
+ */
+public interface SlotAvailability {
+
+    UUID getSlotId();
+
+    long getParticipantCount();
+
+    long getAccepted();
+
+    long getDeclined();
+
+    long getAnswered();
+}
@@ -0,0 +1,24 @@
+package com.rsvpplaner.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code tstzrange_overlaps(start, end, otherStart, otherEnd)} for JPQL queries. It is
+ * true if the half-open ranges [start, end) and [otherStart, otherEnd) overlap and is rendered
+ * with the range operator {@code &&}, which the GiST index on the ranges of event_times serves.
+ * Registered through {@code META-INF/services}.
+ */
+public class TimeRangeFunctionContributor implements FunctionContributor {
+
+    static final String OVERLAPS = "tstzrange_overlaps";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(OVERLAPS,
+                "(tstzrange(?1, ?2) && tstzrange(?3, ?4))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
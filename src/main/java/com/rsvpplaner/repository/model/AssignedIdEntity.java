@@ -0,0 +1,32 @@
+package com.rsvpplaner.repository.model;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Base of entities whose id is assigned by the application. Spring Data would consider such an
+ * entity as existing because its id is set and {@code merge} it, which selects every entity of
+ * the cascaded graph before inserting it. Tracking whether the entity was loaded or persisted lets
+ * {@code save} {@code persist} new entities directly, so their inserts can be batched.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity implements Persistable<UUID> {
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -7,28 +7,51 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import java.util.List;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 import rsvplaner.v1.model.EventType;
 
 @Table(name = "event")
 @Entity
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Event.TIMES_GRAPH, attributeNodes = {
+                @NamedAttributeNode("eventTimes")}),
+        @NamedEntityGraph(name = Event.ATTENDEE_GRAPH, attributeNodes = {
+                @NamedAttributeNode("eventParticipants")})
+})
 @Getter
 @Setter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class Event {
+public class Event extends AssignedIdEntity {
+
+    /**
+     * Fetches the possible event times. Used for event lists, the event detail and every write
+     * that only has to check the times.
+     */
+    public static final String TIMES_GRAPH = "Event.times";
+
+    /**
+     * Fetches the event participants without their availabilities, which are fetched separately
+     * through {@link EventParticipant#AVAILABILITY_GRAPH} to avoid fetching multiple bags at once.
+     */
+    public static final String ATTENDEE_GRAPH = "Event.attendee";
 
     @Id
     @Column(name = "id")
-    private String id;
+    private UUID id;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "event_type")
@@ -52,10 +75,26 @@ public class Event {
     @Column(name = "organizer_name")
     private String organizerName;
 
+    /**
+     * Number of participants with at least one accepted availability, together with
+     * {@link #acceptedCountDelta}. Only written on insert and by the reconciliation of the counter.
+     */
+    @Column(name = "accepted_count", updatable = false)
+    private int acceptedCount;
+
+    /**
+     * Changes of {@link #acceptedCount} since its last reconciliation, added up from the shards
+     * {@code EventRepository#incrementAcceptedCount} writes in the same transaction as the
+     * availability change.
+     */
+    @Formula("(SELECT coalesce(sum(d.delta), 0) FROM event_accepted_count_delta d"
+            + " WHERE d.event_id = id)")
+    private int acceptedCountDelta;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "event", cascade = CascadeType.ALL)
     private List<EventParticipant> eventParticipants;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "event", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "event", cascade = CascadeType.ALL)
     private List<EventTimes> eventTimes;
 
     public Event addEventParticipant(EventParticipant eventParticipant) {
@@ -9,10 +9,14 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.util.List;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -21,15 +25,19 @@ import lombok.Setter;
 
 @Table(name = "event_participant")
 @Entity
+@NamedEntityGraph(name = EventParticipant.AVAILABILITY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("availabilities")})
 @Getter
 @Setter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class EventParticipant {
+public class EventParticipant extends AssignedIdEntity {
+
+    public static final String AVAILABILITY_GRAPH = "EventParticipant.availability";
 
     @Id
-    private String id;
+    private UUID id;
 
     @Column(name = "email", nullable = false)
     private String email;
@@ -44,11 +52,19 @@ public class EventParticipant {
     @Column(name = "notify")
     private boolean notify;
 
-    @ManyToOne
+    /**
+     * Incremented whenever the availabilities of the participant change, so that concurrent
+     * updates of the same participant are detected.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", referencedColumnName = "id", nullable = false)
     private Event event;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "participant", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "participant", cascade = CascadeType.ALL)
     private List<EventParticipantAvailability> availabilities;
 
     public enum ParticipantType {
@@ -0,0 +1,61 @@
+package com.rsvpplaner.service;
+
+import com.rsvpplaner.config.CacheConfig;
+import com.rsvpplaner.repository.EventRepository;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds the denormalized accepted counter of all events from their
+ * availabilities. The counter is kept up to date by {@link EventService}, this only corrects drift
+ * caused by writes that bypass the service, e.g. manual database changes.
+ *
+ * <p>Each drifted event is corrected in its own transaction that locks the event row before
+ * counting and folds the shards of its counter into it. A concurrent RSVP either committed before
+ * the lock and is counted, or its increment waits for the lock and is applied on top of the
+ * corrected counter.
+ */
+@Component
+public class AcceptedCountReconciler {
+    private static final Logger log = LoggerFactory.getLogger(AcceptedCountReconciler.class);
+
+    private final EventRepository eventRepository;
+    private final TransactionRetry transactionRetry;
+    private final CacheManager cacheManager;
+
+    public AcceptedCountReconciler(EventRepository eventRepository,
+            TransactionRetry transactionRetry, CacheManager cacheManager) {
+        this.eventRepository = eventRepository;
+        this.transactionRetry = transactionRetry;
+        this.cacheManager = cacheManager;
+    }
+
+    @Scheduled(cron = "${rsvplaner.accepted-count.reconcile-cron}")
+    public void reconcile() {
+        var corrected = 0;
+        for (var eventId : eventRepository.findDriftedAcceptedCountIds()) {
+            var drifted = transactionRetry.execute("reconcileAcceptedCount", () -> {
+                if (eventRepository.lockById(eventId).isEmpty()
+                        || !eventRepository.isAcceptedCountDrifted(eventId)) {
+                    return false;
+                }
+
+                eventRepository.reconcileAcceptedCount(eventId);
+                return true;
+            });
+            if (drifted) {
+                Objects.requireNonNull(cacheManager.getCache(CacheConfig.EVENT_CACHE))
+                        .evict(eventId.toString());
+                corrected++;
+            }
+        }
+
+        if (corrected > 0) {
+            log.warn("corrected the accepted count of {} events", corrected);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.rsvpplaner.service;
+
+import java.util.List;
+
+/**
+ * A page of a cursor paginated listing.
+ *
+ * @param nextCursor token to fetch the following page with, {@code null} on the last page
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,40 @@
+package com.rsvpplaner.service;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * An event image, either streamed from the object storage or served from a file of the local
+ * image cache. Exactly one of {@code content} and {@code file} is set. The consumer is
+ * responsible for closing the content stream.
+ *
+ * @param contentLength length of the content, i.e. of the range if one is set
+ * @param range         the part of the image to serve, {@code null} for the whole image
+ * @param etag          the ETag of the stored object, may be {@code null}
+ */
+public record EventImage(InputStream content, Path file, String contentType, long contentLength,
+                         ContentRange range, String etag) {
+
+    public static EventImage streamed(InputStream content, String contentType,
+            long contentLength, ContentRange range, String etag) {
+        return new EventImage(content, null, contentType, contentLength, range, etag);
+    }
+
+    public static EventImage cached(ImageDiskCache.Entry entry, ContentRange range) {
+        var contentLength = range != null ? range.end() - range.start() + 1 : entry.size();
+        return new EventImage(null, entry.file(), entry.contentType(), contentLength, range,
+                entry.etag());
+    }
+
+    /**
+     * @param start       first byte position of the content, inclusive
+     * @param end         last byte position of the content, inclusive
+     * @param totalLength length of the whole image
+     */
+    public record ContentRange(long start, long end, long totalLength) {
+
+        public String toHeaderValue() {
+            return String.format("bytes %d-%d/%d", start, end, totalLength);
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.rsvpplaner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rsvpplaner.config.CacheConfig;
+import com.rsvpplaner.config.ObjectStorage;
+import com.rsvpplaner.controller.ErrorResponseException;
+import com.rsvpplaner.repository.EventRepository;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.InsufficientDataException;
+import io.minio.errors.InternalException;
+import io.minio.errors.InvalidResponseException;
+import io.minio.errors.ServerException;
+import io.minio.errors.XmlParserException;
+import io.minio.http.Method;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLConnection;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import rsvplaner.v1.model.ImageSize;
+
+@Service
+public class EventImageService {
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
+    private final EventRepository eventRepository;
+    private final MinioClient minioClient;
+    private final MinioClient presigningMinioClient;
+    private final ImageDiskCache imageDiskCache;
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    private final String imageBucketName;
+    private final ImageDelivery imageDelivery;
+    private final Duration presignedUrlExpiry;
+
+    /**
+     * Presigned download URLs by object name. Entries expire shortly before the URL itself, so a
+     * client is never redirected to a URL that is about to become invalid.
+     */
+    private final Cache<String, URI> presignedImageUrls;
+
+    public EventImageService(EventRepository eventRepository,
+            MinioClient minioClient,
+            @Qualifier(ObjectStorage.PRESIGNING_CLIENT) MinioClient presigningMinioClient,
+            ImageDiskCache imageDiskCache,
+            ImageVariantGenerator imageVariantGenerator,
+            @Value("${minio.bucket.eventimages}") String imageBucketName,
+            @Value("${rsvplaner.images.delivery}") ImageDelivery imageDelivery,
+            @Value("${rsvplaner.images.presigned-url.expiry}") Duration presignedUrlExpiry,
+            @Value("${rsvplaner.images.presigned-url.renew-before}") Duration renewBefore,
+            @Value("${rsvplaner.images.presigned-url.cache-size}") long presignedUrlCacheSize) {
+        if (renewBefore.compareTo(presignedUrlExpiry) >= 0) {
+            throw new IllegalArgumentException(
+                    "presigned url renew-before must be shorter than its expiry");
+        }
+
+        this.eventRepository = eventRepository;
+        this.minioClient = minioClient;
+        this.presigningMinioClient = presigningMinioClient;
+        this.imageDiskCache = imageDiskCache;
+        this.imageVariantGenerator = imageVariantGenerator;
+        this.imageBucketName = imageBucketName;
+        this.imageDelivery = imageDelivery;
+        this.presignedUrlExpiry = presignedUrlExpiry;
+        this.presignedImageUrls = Caffeine.newBuilder()
+                .maximumSize(presignedUrlCacheSize)
+                .expireAfterWrite(presignedUrlExpiry.minus(renewBefore))
+                .build();
+    }
+
+    /**
+     * Whether image downloads are redirected to the object storage instead of being streamed
+     * through the application.
+     */
+    public boolean redirectsDownloads() {
+        return imageDelivery == ImageDelivery.REDIRECT;
+    }
+
+    /**
+     * Stores the image of the event, or removes it if the body is {@code null}. The variants of
+     * a previous image are removed right away, the variants of the new image are generated in the
+     * background. Until they exist, the original image is served for every size.
+     */
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
+    public void uploadImage(String eventId, Resource body) {
+        String etag;
+        try {
+            removeVariants(eventId);
+
+            if (body == null) {
+                minioClient.removeObject(RemoveObjectArgs.builder().bucket(imageBucketName).object(
+                        eventId).build());
+                return;
+            }
+
+            var content = new BufferedInputStream(body.getInputStream());
+            etag = minioClient.putObject(PutObjectArgs.builder().bucket(imageBucketName).object(
+                    eventId).contentType(
+                    imageContentType(URLConnection.guessContentTypeFromStream(content))).stream(
+                    content, body.contentLength(), 1000000000).build()).etag();
+
+        } catch (IOException
+                | ErrorResponseException
+                | ServerException
+                | InsufficientDataException
+                | NoSuchAlgorithmException
+                | InvalidKeyException
+                | InvalidResponseException
+                | XmlParserException
+                | InternalException
+                | io.minio.errors.ErrorResponseException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            invalidateCachedImages(eventId);
+        }
+
+        imageVariantGenerator.submit(eventId, etag);
+    }
+
+    /**
+     * Completes an upload to a URL from {@link #createEventImageUploadUrl}. The object storage
+     * does not notify the application of such uploads, so the variants of the previous image are
+     * only removed, the cached copies invalidated and the variants of the new image generated once
+     * the client confirms the upload.
+     *
+     * @throws ErrorResponseException with status 404 if no image was uploaded
+     */
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
+    public void confirmImageUpload(String eventId) {
+        var etag = findEtag(eventId);
+        if (etag == null) {
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND,
+                    String.format("image for event with id %s not found", eventId));
+        }
+
+        try {
+            removeVariants(eventId);
+        } catch (IOException
+                | ServerException
+                | InsufficientDataException
+                | NoSuchAlgorithmException
+                | InvalidKeyException
+                | InvalidResponseException
+                | XmlParserException
+                | InternalException
+                | io.minio.errors.ErrorResponseException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            invalidateCachedImages(eventId);
+        }
+
+        imageVariantGenerator.submit(eventId, etag);
+    }
+
+    private void removeVariants(String eventId) throws IOException, ServerException,
+            InsufficientDataException, io.minio.errors.ErrorResponseException,
+            NoSuchAlgorithmException, InvalidKeyException, InvalidResponseException,
+            XmlParserException, InternalException {
+        for (var size : ImageVariantGenerator.VARIANT_SIZES) {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(imageBucketName).object(
+                    ImageVariantGenerator.objectName(eventId, size)).build());
+        }
+    }
+
+    private void invalidateCachedImages(String eventId) {
+        imageDiskCache.invalidate(eventId);
+        for (var size : ImageVariantGenerator.VARIANT_SIZES) {
+            var objectName = ImageVariantGenerator.objectName(eventId, size);
+            imageDiskCache.invalidate(objectName);
+            presignedImageUrls.invalidate(objectName);
+        }
+    }
+
+    /**
+     * Opens the image of the event in the requested size, falling back to the original image if
+     * the variant has not been generated (yet). A missing variant is queued for generation, in
+     * case its upload could not queue it. If a range is given, only that part of the image is
+     * served.
+     */
+    public EventImage getEventImage(String eventId, ImageSize size, HttpRange range) {
+        if (size != ImageSize.ORIGINAL) {
+            var variant = openImage(ImageVariantGenerator.objectName(eventId, size), range);
+            if (variant != null) {
+                return variant;
+            }
+        }
+
+        var image = openImage(eventId, range);
+        if (image == null) {
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND,
+                    String.format("image for event with id %s not found", eventId));
+        }
+
+        if (size != ImageSize.ORIGINAL) {
+            imageVariantGenerator.submitIfIdle(eventId);
+        }
+        return image;
+    }
+
+    /**
+     * Opens the stored object. Objects that fit into the local disk cache are served from there,
+     * everything else is streamed from the object storage. Returns {@code null} if the object
+     * does not exist.
+     */
+    private EventImage openImage(String objectName, HttpRange range) {
+        try {
+            if (imageDiskCache.isEnabled()) {
+                var cached = getCachedImage(objectName);
+                if (cached != null) {
+                    var contentRange = range != null ? toContentRange(range, cached.size()) : null;
+                    return EventImage.cached(cached, contentRange);
+                }
+            }
+
+            if (range == null) {
+                var image = minioClient.getObject(
+                        GetObjectArgs.builder().bucket(imageBucketName).object(objectName).build()
+                );
+
+                return EventImage.streamed(image,
+                        imageContentType(image.headers().get(HttpHeaders.CONTENT_TYPE)),
+                        Long.parseLong(image.headers().get(HttpHeaders.CONTENT_LENGTH)),
+                        null,
+                        image.headers().get(HttpHeaders.ETAG));
+            }
+
+            var stat = minioClient.statObject(
+                    StatObjectArgs.builder().bucket(imageBucketName).object(objectName).build());
+            var contentRange = toContentRange(range, stat.size());
+
+            var image = minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(imageBucketName)
+                            .object(objectName)
+                            .offset(contentRange.start())
+                            .length(contentRange.end() - contentRange.start() + 1)
+                            .build()
+            );
+
+            return EventImage.streamed(image, imageContentType(stat.contentType()),
+                    contentRange.end() - contentRange.start() + 1, contentRange, stat.etag());
+        } catch (IOException
+                | ServerException
+                | InsufficientDataException
+                | NoSuchAlgorithmException
+                | InvalidKeyException
+                | InvalidResponseException
+                | XmlParserException
+                | InternalException e) {
+            throw new IllegalStateException(e);
+        } catch (io.minio.errors.ErrorResponseException e) {
+            if (!NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                throw new IllegalStateException(e);
+            }
+
+            imageDiskCache.invalidate(objectName);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cache entry of the object, downloading it on a miss. Entries due for
+     * revalidation are only downloaded again if the ETag of the stored object changed. Concurrent
+     * misses of an object wait for the first one to fill the entry. Returns {@code null} if the
+     * object is too large to be cached.
+     */
+    private ImageDiskCache.Entry getCachedImage(String objectName) throws IOException,
+            ServerException, InsufficientDataException, io.minio.errors.ErrorResponseException,
+            NoSuchAlgorithmException, InvalidKeyException, InvalidResponseException,
+            XmlParserException, InternalException {
+        var entry = imageDiskCache.get(objectName);
+        if (entry.isPresent() && !imageDiskCache.needsRevalidation(entry.get())) {
+            return entry.get();
+        }
+
+        var fillLock = imageDiskCache.fillLock(objectName);
+        fillLock.lock();
+        try {
+            entry = imageDiskCache.get(objectName);
+            if (entry.isPresent() && !imageDiskCache.needsRevalidation(entry.get())) {
+                return entry.get();
+            }
+
+            var stat = minioClient.statObject(
+                    StatObjectArgs.builder().bucket(imageBucketName).object(objectName).build());
+            if (entry.isPresent() && stat.etag().equals(entry.get().etag())) {
+                return imageDiskCache.markValidated(objectName, entry.get());
+            }
+
+            if (!imageDiskCache.fits(stat.size())) {
+                imageDiskCache.invalidate(objectName);
+                return null;
+            }
+
+            try (var image = minioClient.getObject(
+                    GetObjectArgs.builder().bucket(imageBucketName).object(objectName).build())) {
+                // the object may have been replaced since the stat, so take the ETag of the
+                // download
+                var etag = StringUtils.strip(image.headers().get(HttpHeaders.ETAG), "\"");
+                return imageDiskCache.put(objectName, image, etag,
+                        imageContentType(image.headers().get(HttpHeaders.CONTENT_TYPE)));
+            }
+        } finally {
+            fillLock.unlock();
+        }
+    }
+
+    private static EventImage.ContentRange toContentRange(HttpRange range, long imageLength) {
+        try {
+            return new EventImage.ContentRange(range.getRangeStart(imageLength),
+                    range.getRangeEnd(imageLength), imageLength);
+        } catch (IllegalArgumentException e) {
+            throw new ErrorResponseException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE,
+                    String.format("requested range is not satisfiable for an image of %d bytes",
+                            imageLength));
+        }
+    }
+
+    private static String imageContentType(String contentType) {
+        return StringUtils.isNotBlank(contentType)
+                ? contentType
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    /**
+     * Returns a presigned URL the image of the event can be downloaded from directly. URLs are
+     * reused until shortly before they expire. Whether the original image exists is not checked,
+     * the object storage responds with 404 in that case. Variants that have not been generated
+     * yet are substituted by the original image, without caching that URL.
+     */
+    public URI getEventImageUrl(String eventId, ImageSize size) {
+        if (size != ImageSize.ORIGINAL) {
+            var objectName = ImageVariantGenerator.objectName(eventId, size);
+            var cached = presignedImageUrls.getIfPresent(objectName);
+            if (cached != null) {
+                return cached;
+            }
+
+            if (findEtag(objectName) != null) {
+                return presignedImageUrls.get(objectName, name -> presignUrl(Method.GET, name));
+            }
+            imageVariantGenerator.submitIfIdle(eventId);
+        }
+
+        return presignedImageUrls.get(eventId, name -> presignUrl(Method.GET, name));
+    }
+
+    /**
+     * Returns a presigned URL the image of the event can be uploaded to with a PUT request,
+     * bypassing the application. Only available if downloads are redirected as well. The upload
+     * has to be confirmed with {@link #confirmImageUpload} afterwards.
+     */
+    public PresignedImageUrl createEventImageUploadUrl(String eventId) {
+        if (!redirectsDownloads()) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    "presigned image uploads are not enabled");
+        }
+
+        if (!eventRepository.existsById(Ids.parseEventId(eventId))) {
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND,
+                    String.format("event with id %s not found", eventId));
+        }
+
+        var expiresAt = Instant.now().plus(presignedUrlExpiry);
+        return new PresignedImageUrl(presignUrl(Method.PUT, eventId), expiresAt);
+    }
+
+    /**
+     * Returns the ETag of the stored object, {@code null} if the object does not exist.
+     */
+    private String findEtag(String objectName) {
+        try {
+            return minioClient.statObject(
+                    StatObjectArgs.builder().bucket(imageBucketName).object(objectName).build())
+                    .etag();
+        } catch (IOException
+                | ServerException
+                | InsufficientDataException
+                | NoSuchAlgorithmException
+                | InvalidKeyException
+                | InvalidResponseException
+                | XmlParserException
+                | InternalException e) {
+            throw new IllegalStateException(e);
+        } catch (io.minio.errors.ErrorResponseException e) {
+            if (!NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                throw new IllegalStateException(e);
+            }
+
+            return null;
+        }
+    }
+
+    private URI presignUrl(Method method, String objectName) {
+        try {
+            return URI.create(presigningMinioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
+                            .bucket(imageBucketName)
+                            .object(objectName)
+                            .expiry((int) presignedUrlExpiry.toSeconds(), TimeUnit.SECONDS)
+                            .build()));
+        } catch (IOException
+                | ServerException
+                | InsufficientDataException
+                | NoSuchAlgorithmException
+                | InvalidKeyException
+                | InvalidResponseException
+                | XmlParserException
+                | InternalException
+                | io.minio.errors.ErrorResponseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record PresignedImageUrl(URI url, Instant expiresAt) {
+    }
+
+    public enum ImageDelivery {
+        /**
+         * Images are streamed from the object storage through the application.
+         */
+        PROXY,
+        /**
+         * Image downloads are redirected to presigned object storage URLs.
+         */
+        REDIRECT
+    }
+}
@@ -2,76 +2,100 @@ package com.rsvpplaner.service;
 
 import static java.time.ZoneOffset.UTC;
 
+import com.rsvpplaner.config.CacheConfig;
 import com.rsvpplaner.controller.ErrorResponseException;
+import com.rsvpplaner.repository.EventCursor;
 import com.rsvpplaner.repository.EventParticipantAvailabilityRepository;
 import com.rsvpplaner.repository.EventParticipantRepository;
 import com.rsvpplaner.repository.EventRepository;
+import com.rsvpplaner.repository.EventSearch;
+import com.rsvpplaner.repository.SlotAvailability;
 import com.rsvpplaner.repository.model.EventParticipant;
 import com.rsvpplaner.repository.model.EventParticipantAvailability;
 import com.rsvpplaner.repository.model.EventTimes;
-import io.minio.GetObjectArgs;
-import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
-import io.minio.RemoveObjectArgs;
-import io.minio.errors.InsufficientDataException;
-import io.minio.errors.InternalException;
-import io.minio.errors.InvalidResponseException;
-import io.minio.errors.ServerException;
-import io.minio.errors.XmlParserException;
-import java.io.IOException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import rsvplaner.v1.model.Attendee;
 import rsvplaner.v1.model.AttendeeAvailability;
+import rsvplaner.v1.model.AttendeeImportResult;
+import rsvplaner.v1.model.AttendeeView;
 import rsvplaner.v1.model.Event;
 import rsvplaner.v1.model.EventDateTimesInner;
 import rsvplaner.v1.model.EventType;
 import rsvplaner.v1.model.NewEvent;
 import rsvplaner.v1.model.Organizer;
+import rsvplaner.v1.model.SlotCount;
+import rsvplaner.v1.model.SlotSummary;
 
 @Service
 public class EventService {
+    /**
+     * Maximum number of attendees of one import.
+     */
+    public static final int MAX_IMPORTED_ATTENDEES = 10_000;
+
     private static final Logger log = LoggerFactory.getLogger(EventService.class);
 
+    /**
+     * Number of rows the accepted counter of an event is spread over, so that concurrent RSVPs
+     * to the same event rarely wait for each other's counter update.
+     */
+    private static final int ACCEPTED_COUNT_SHARDS = 16;
+
     private final EventRepository eventRepository;
     private final EventParticipantRepository eventParticipantRepository;
     private final EventParticipantAvailabilityRepository availabilityRepository;
-    private final MinioClient minioClient;
-
-    private final String imageBucketName;
+    private final EntityManager entityManager;
+    private final TransactionRetry transactionRetry;
+    private final OperationMetrics operationMetrics;
 
     public EventService(EventRepository eventRepository,
             EventParticipantRepository eventParticipantRepository,
             EventParticipantAvailabilityRepository availabilityRepository,
-            MinioClient minioClient,
-            @Value("${minio.bucket.eventimages}") String imageBucketName) {
+            EntityManager entityManager,
+            TransactionRetry transactionRetry,
+            OperationMetrics operationMetrics) {
         this.eventRepository = eventRepository;
         this.eventParticipantRepository = eventParticipantRepository;
         this.availabilityRepository = availabilityRepository;
-        this.minioClient = minioClient;
-        this.imageBucketName = imageBucketName;
+        this.entityManager = entityManager;
+        this.transactionRetry = transactionRetry;
+        this.operationMetrics = operationMetrics;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
     public Event createEvent(NewEvent newEvent) {
+        return operationMetrics.record("createEvent",
+                () -> transactionRetry.execute("createEvent", () -> insertEvent(newEvent)));
+    }
+
+    private Event insertEvent(NewEvent newEvent) {
         com.rsvpplaner.repository.model.Event event = mapToDbEvent(newEvent);
 
         var participants = new ArrayList<EventParticipant>();
@@ -88,7 +112,7 @@ public class EventService {
                 }
 
                 var eventParticipant = EventParticipant.builder()
-                        .id(UUID.randomUUID().toString())
+                        .id(Ids.next())
                         .email(a.getEmail())
                         .name(a.getName())
                         .notify(true)
@@ -106,7 +130,7 @@ public class EventService {
         }
 
         var organizerParticipant = EventParticipant.builder()
-                .id(UUID.randomUUID().toString())
+                .id(Ids.next())
                 .email(newEvent.getOrganizer().getEmail())
                 .name(newEvent.getOrganizer().getName())
                 .notify(true)
@@ -121,50 +145,174 @@ public class EventService {
 
         participants.add(organizerParticipant);
         event.setEventParticipants(participants);
+        event.setAcceptedCount((int) participants.stream()
+                .filter(p -> hasAccepted(p.getAvailabilities()))
+                .count());
 
         var savedEvent = eventRepository.save(event);
         return mapToApiEvent(savedEvent);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
     public Event addEventAttendee(String eventId, Attendee attendee) {
-        var event = getEventOrThrow(eventId);
+        return operationMetrics.record("addEventAttendee",
+                () -> transactionRetry.execute("addEventAttendee",
+                        () -> insertEventAttendee(eventId, attendee)));
+    }
+
+    private Event insertEventAttendee(String eventId, Attendee attendee) {
+        // only the event and its times are loaded, so the cost of the write does not grow with
+        // the number of participants
+        var event = eventRepository.findTimesViewById(Ids.parseEventId(eventId)).orElseThrow(
+                () -> new ErrorResponseException(HttpStatus.NOT_FOUND,
+                        String.format("event with id %s not found", eventId)));
+
+        var eventParticipant = mapNewParticipant(event, slotsOf(event), attendee);
+        if (eventParticipantRepository.existsByEventIdAndEmail(event.getId(),
+                eventParticipant.getEmail())) {
+            throw attendeeExists(attendee);
+        }
+
+        // a concurrent insert of the same email passes the check above and is rejected by the
+        // unique (email, event_id) constraint on flush
+        try {
+            eventParticipantRepository.saveAndFlush(eventParticipant);
+        } catch (DataIntegrityViolationException e) {
+            throw attendeeExists(attendee);
+        }
+
+        updateAcceptedCount(event, hasAccepted(eventParticipant.getAvailabilities()) ? 1 : 0);
+
+        return mapToApiEvent(event);
+    }
+
+    /**
+     * Imports many attendees at once. Every attendee is validated before anything is written,
+     * existing emails are looked up with one query and the new participants are inserted in JDBC
+     * batches. Invalid attendees and duplicates are skipped and reported in the result of their
+     * row, the others are created.
+     */
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
+    public List<AttendeeImportResult> importAttendees(String eventId, List<Attendee> attendees) {
+        return operationMetrics.record("importAttendees", () -> {
+            if (attendees.size() > MAX_IMPORTED_ATTENDEES) {
+                throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                        String.format("at most %d attendees can be imported at once",
+                                MAX_IMPORTED_ATTENDEES));
+            }
+
+            var results = transactionRetry.execute("importAttendees",
+                    () -> insertAttendees(eventId, attendees));
+            operationMetrics.countImported(results);
+            return results;
+        });
+    }
+
+    private static ErrorResponseException attendeeExists(Attendee attendee) {
+        return new ErrorResponseException(HttpStatus.CONFLICT,
+                String.format("attendee with email %s already exists", attendee.getEmail()));
+    }
+
+    private List<AttendeeImportResult> insertAttendees(String eventId, List<Attendee> attendees) {
+        var event = eventRepository.findTimesViewById(Ids.parseEventId(eventId)).orElseThrow(
+                () -> new ErrorResponseException(HttpStatus.NOT_FOUND,
+                        String.format("event with id %s not found", eventId)));
+
+        var emails = attendees.stream()
+                .map(Attendee::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        var existingEmails = new HashSet<String>();
+        if (!emails.isEmpty()) {
+            existingEmails.addAll(
+                    eventParticipantRepository.findEmailsByEventIdAndEmailIn(event.getId(), emails));
+        }
 
-        event.getEventParticipants().stream().filter(p -> p.getEmail().equals(attendee.getEmail()))
-                .findAny().ifPresent(p -> {
-                    throw new ErrorResponseException(HttpStatus.CONFLICT,
-                            String.format("attendee with email %s already exists",
-                                    attendee.getEmail()));
-                });
+        var slots = slotsOf(event);
+        var results = new ArrayList<AttendeeImportResult>(attendees.size());
+        var participants = new ArrayList<EventParticipant>();
+        for (int i = 0; i < attendees.size(); i++) {
+            var attendee = attendees.get(i);
+            var result = new AttendeeImportResult().index(i).email(attendee.getEmail());
+            results.add(result);
+
+            if (existingEmails.contains(attendee.getEmail())) {
+                result.status(AttendeeImportResult.StatusEnum.DUPLICATE)
+                        .message(String.format("attendee with email %s already exists",
+                                attendee.getEmail()));
+                continue;
+            }
+
+            try {
+                participants.add(mapNewParticipant(event, slots, attendee));
+                existingEmails.add(attendee.getEmail());
+                result.status(AttendeeImportResult.StatusEnum.CREATED);
+            } catch (ErrorResponseException e) {
+                result.status(AttendeeImportResult.StatusEnum.INVALID).message(e.getMessage());
+            }
+        }
+
+        // a concurrent insert of an email that was not found above is rejected by the unique
+        // (email, event_id) constraint on flush. The import is then retried, and the retry
+        // reports the email as a duplicate
+        try {
+            eventParticipantRepository.saveAll(participants);
+            eventParticipantRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new ConcurrencyFailureException("attendee was inserted concurrently", e);
+        }
+
+        updateAcceptedCount(event, (int) participants.stream()
+                .filter(p -> hasAccepted(p.getAvailabilities()))
+                .count());
+
+        return results;
+    }
+
+    /**
+     * Validates the attendee against the possible times of the event, given as {@code slots}, and
+     * builds the new participant with its availabilities.
+     *
+     * @throws ErrorResponseException with status 400 if the attendee is invalid
+     */
+    static EventParticipant mapNewParticipant(com.rsvpplaner.repository.model.Event event,
+            Set<Slot> slots, Attendee attendee) {
+        if (StringUtils.isBlank(attendee.getEmail())) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
+                    "attendee email must be set");
+        }
 
         var eventParticipant = EventParticipant.builder()
-                .id(UUID.randomUUID().toString())
+                .id(Ids.next())
                 .email(attendee.getEmail())
                 .name(attendee.getName())
+                .notify(Boolean.TRUE.equals(attendee.isNotify()))
                 .participantType(EventParticipant.ParticipantType.ATTENDEE)
                 .event(event)
                 .build();
 
-        if (attendee.getAttendeeAvailabilities().size() > event.getEventTimes().size()) {
+        var attendeeAvailabilities = attendee.getAttendeeAvailabilities() != null
+                ? attendee.getAttendeeAvailabilities() : List.<AttendeeAvailability>of();
+
+        if (attendeeAvailabilities.size() > slots.size()) {
             throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
                     "you provided more availabilities than possible times");
         }
 
-        var availabilities = attendee.getAttendeeAvailabilities().stream().map(
+        var availabilities = attendeeAvailabilities.stream().map(
                 a -> {
                     if (a.getStartTime() == null || a.getEndTime() == null) {
                         throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
                                 "attendee availability start and end time must be set");
                     }
 
-                    if (StringUtils.isBlank(a.getStatus().toString())) {
+                    if (a.getStatus() == null) {
                         throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
                                 "attendee availability status must be set");
                     }
 
-                    if (event.getEventTimes().stream().noneMatch(
-                            d -> d.getStartTime().equals(a.getStartTime().toInstant())
-                                 && d.getEndTime().equals(
-                                    a.getEndTime().toInstant()))) {
+                    if (!slots.contains(new Slot(a.getStartTime().toInstant(),
+                            a.getEndTime().toInstant()))) {
                         throw new ErrorResponseException(HttpStatus.BAD_REQUEST,
                                 String.format(
                                         "availability with start time: %s and end time: %s does "
@@ -175,7 +323,7 @@ public class EventService {
 
 
                     return EventParticipantAvailability.builder()
-                            .id(UUID.randomUUID().toString())
+                            .id(Ids.next())
                             .event(event)
                             .participant(eventParticipant)
                             .startTime(a.getStartTime().toInstant())
@@ -185,83 +333,139 @@ public class EventService {
                 }).toList();
 
         eventParticipant.setAvailabilities(availabilities);
-        eventParticipantRepository.save(eventParticipant);
-
-        event.addEventParticipant(eventParticipant);
-
-        return mapToApiEvent(event);
+        return eventParticipant;
     }
 
-    public Event getEvent(String eventId) {
-        var event = eventRepository.findById(eventId).orElseThrow(() -> new ErrorResponseException(
-                HttpStatus.NOT_FOUND, String.format("Event with id %s not found", eventId)));
-
-        return mapToApiEvent(event);
+    /**
+     * Only events with all attendees are cached, they are the expensive ones to map and every
+     * mutating operation evicts them by event id alone, after its transaction committed. The
+     * event is loaded inside the cache's atomic compute, so an eviction that races a load waits
+     * for it and removes what it loaded from before the commit.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId", sync = true,
+            condition = "#attendees == T(rsvplaner.v1.model.AttendeeView).FULL")
+    public Event getEvent(String eventId, AttendeeView attendees) {
+        return operationMetrics.record("getEvent", () -> {
+            var event = eventRepository.findTimesViewById(Ids.parseEventId(eventId)).orElseThrow(() -> new ErrorResponseException(
+                    HttpStatus.NOT_FOUND, String.format("Event with id %s not found", eventId)));
+
+            return mapToApiEvents(List.of(event), attendees).get(0);
+        });
     }
 
-    public List<Event> findEvents(int pageNumber, int pageSize, EventType eventType,
-            String title,
-            String attendeeEmail,
-            String organizerEmail,
-            Instant startTime,
-            Instant endTime) {
-        var pageable = PageRequest.of(pageNumber, pageSize, Sort.by(
-                Sort.Direction.ASC, "title"));
+    /**
+     * Counts the availabilities per possible time of the event from one aggregated query over the
+     * availabilities, without loading the participants.
+     */
+    @Transactional(readOnly = true)
+    public SlotSummary getSlotSummary(String eventId) {
+        return operationMetrics.record("getSlotSummary", () -> summarizeSlots(eventId));
+    }
 
-        if (StringUtils.isNotBlank(attendeeEmail)) {
-            var events =
-                    eventRepository.findAllByExampleAndParticipantEmail(
-                            attendeeEmail, eventType, pageable);
+    private SlotSummary summarizeSlots(String eventId) {
+        var event = eventRepository.findTimesViewById(Ids.parseEventId(eventId)).orElseThrow(
+                () -> new ErrorResponseException(HttpStatus.NOT_FOUND,
+                        String.format("event with id %s not found", eventId)));
 
-            if (events.isEmpty()) {
-                throw new ErrorResponseException(HttpStatus.NOT_FOUND, "no events found");
-            }
+        var slots = event.getEventTimes().stream()
+                .sorted(Comparator.comparing(EventTimes::getStartTime)
+                        .thenComparing(EventTimes::getEndTime))
+                .toList();
+        var slotIndices = new HashMap<UUID, Integer>();
+        for (int i = 0; i < slots.size(); i++) {
+            slotIndices.put(slots.get(i).getId(), i);
+        }
 
-            return events.stream().map(this::mapToApiEvent).toList();
+        var availabilities = new SlotAvailability[slots.size()];
+        long participantCount = 0;
+        for (var availability : eventRepository.findSlotAvailabilities(event.getId())) {
+            availabilities[slotIndices.get(availability.getSlotId())] = availability;
+            participantCount = availability.getParticipantCount();
         }
 
-        com.rsvpplaner.repository.model.Event event = new com.rsvpplaner.repository.model.Event();
-        event.setEventType(eventType);
+        // best first: most accepted, then fewest declined, ties keep the slot order
+        var ranking = IntStream.range(0, slots.size())
+                .boxed()
+                .sorted(Comparator.comparingLong(
+                                (Integer slot) -> -availabilities[slot].getAccepted())
+                        .thenComparingLong(slot -> availabilities[slot].getDeclined()))
+                .toList();
 
-        if (StringUtils.isNotBlank(title)) {
-            event.setTitle(title);
+        var summary = new SlotSummary()
+                .participantCount((int) participantCount)
+                .bestSlots(ranking);
+        for (int i = 0; i < slots.size(); i++) {
+            summary.addSlotsItem(new SlotCount()
+                    .startTime(slots.get(i).getStartTime().atOffset(UTC))
+                    .endTime(slots.get(i).getEndTime().atOffset(UTC))
+                    .accepted((int) availabilities[i].getAccepted())
+                    .declined((int) availabilities[i].getDeclined())
+                    .undecided((int) (participantCount - availabilities[i].getAnswered())));
         }
+        return summary;
+    }
 
-        if (StringUtils.isNotBlank(attendeeEmail)) {
-            event.setEventParticipants(List.of(EventParticipant.builder()
-                    .email(attendeeEmail)
-                    .build()));
-        }
+    /**
+     * Searches events ordered by title. Without a cursor the page is selected by its number,
+     * otherwise the search seeks past the cursor and {@code pageNumber} is ignored. Either way the
+     * returned page carries the cursor of the following page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Event> findEvents(int pageNumber, int pageSize, String cursor,
+            EventType eventType,
+            String title,
+            String attendeeEmail,
+            String organizerEmail,
+            Instant startTime,
+            Instant endTime,
+            AttendeeView attendees) {
+        var search = new EventSearch(eventType,
+                StringUtils.isNotBlank(title) ? title : null,
+                StringUtils.isNotBlank(attendeeEmail) ? attendeeEmail : null,
+                organizerEmail,
+                startTime,
+                endTime);
+
+        return operationMetrics.record("findEvents", eventType,
+                () -> searchEvents(pageNumber, pageSize, cursor, search, attendees));
+    }
 
-        if (organizerEmail != null) {
-            event.setOrganizerEmail(organizerEmail);
+    private CursorPage<Event> searchEvents(int pageNumber, int pageSize, String cursor,
+            EventSearch search, AttendeeView attendees) {
+        // one extra row tells whether there is a following page without a count query
+        List<com.rsvpplaner.repository.model.Event> events;
+        if (cursor != null) {
+            events = eventRepository.searchAfter(search, decodeCursor(cursor), pageSize + 1);
+        } else {
+            events = eventRepository.search(search, pageNumber * pageSize, pageSize + 1);
         }
 
-        if (startTime != null && endTime != null) {
-            event.setEventTimes(List.of(EventTimes.builder()
-                    .startTime(startTime)
-                    .endTime(endTime)
-                    .build()));
+        if (events.isEmpty()) {
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND, "no events found");
         }
 
-        var exampleMatcher = ExampleMatcher.matching().withMatcher("title",
-                ExampleMatcher.GenericPropertyMatchers.contains().ignoreCase());
-
-        var eventExample = Example.of(event, exampleMatcher);
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            nextCursor = EventCursor.after(events.get(pageSize - 1)).encode();
+        }
 
-        var events = eventRepository.findAll(eventExample, pageable);
+        return new CursorPage<>(mapToApiEvents(events, attendees), nextCursor);
+    }
 
-        if (events.isEmpty()) {
-            throw new ErrorResponseException(HttpStatus.NOT_FOUND, "no events found");
+    private static EventCursor decodeCursor(String cursor) {
+        try {
+            return EventCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST, "invalid cursor");
         }
-
-        return events.stream().map(this::mapToApiEvent).toList();
     }
 
 
-    private com.rsvpplaner.repository.model.Event mapToDbEvent(NewEvent newEvent) {
+    static com.rsvpplaner.repository.model.Event mapToDbEvent(NewEvent newEvent) {
         var event = new com.rsvpplaner.repository.model.Event();
-        event.setId(UUID.randomUUID().toString());
+        event.setId(Ids.next());
         event.setEventType(newEvent.getEventType());
         event.setTitle(newEvent.getTitle());
         event.setDescription(newEvent.getDescription());
@@ -271,7 +475,7 @@ public class EventService {
         event.setOrganizerName(newEvent.getOrganizer().getName());
         event.setEventTimes(newEvent.getPossibleDateTimes().stream().map(
                 d -> EventTimes.builder()
-                        .id(UUID.randomUUID().toString())
+                        .id(Ids.next())
                         .event(event)
                         .startTime(d.getStartTime().toInstant())
                         .endTime(d.getEndTime().toInstant())
@@ -285,7 +489,7 @@ public class EventService {
             EventDateTimesInner availability,
             AttendeeAvailability.StatusEnum status) {
         return EventParticipantAvailability.builder()
-                .id(UUID.randomUUID().toString())
+                .id(Ids.next())
                 .event(event)
                 .participant(eventParticipant)
                 .startTime(availability.getStartTime().toInstant())
@@ -298,7 +502,7 @@ public class EventService {
             com.rsvpplaner.repository.model.Event event,
             EventParticipant eventParticipant, AttendeeAvailability availability) {
         return EventParticipantAvailability.builder()
-                .id(UUID.randomUUID().toString())
+                .id(Ids.next())
                 .event(event)
                 .participant(eventParticipant)
                 .startTime(availability.getStartTime().toInstant())
@@ -308,8 +512,82 @@ public class EventService {
     }
 
     private Event mapToApiEvent(com.rsvpplaner.repository.model.Event dbEvent) {
+        return mapToApiEvents(List.of(dbEvent)).get(0);
+    }
+
+    private List<Event> mapToApiEvents(List<com.rsvpplaner.repository.model.Event> dbEvents) {
+        return mapToApiEvents(dbEvents, AttendeeView.FULL);
+    }
+
+    private List<Event> mapToApiEvents(List<com.rsvpplaner.repository.model.Event> dbEvents,
+            AttendeeView attendees) {
+        fetchEventGraph(dbEvents, attendees == AttendeeView.FULL);
+
+        var attendeeCounts = new HashMap<UUID, Long>();
+        if (attendees == AttendeeView.COUNT) {
+            var privateEvents = dbEvents.stream()
+                    .filter(e -> e.getEventType() == EventType.PRIVATE)
+                    .map(com.rsvpplaner.repository.model.Event::getId)
+                    .toList();
+            if (!privateEvents.isEmpty()) {
+                eventParticipantRepository.countByEventIdIn(privateEvents).forEach(
+                        c -> attendeeCounts.put(c.getEventId(), c.getAttendeeCount()));
+            }
+        }
+
+        return dbEvents.stream()
+                .map(e -> mapEvent(e, attendees, attendeeCounts.getOrDefault(e.getId(), 0L)))
+                .toList();
+    }
+
+    /**
+     * Initializes everything the API mapping reads with a fixed number of queries, independent
+     * of the number of events, participants and availabilities: one for the event times of all
+     * events and, for private events, one for their participants and one for the availabilities
+     * of those participants. Collections that are already initialized are skipped, participants
+     * are only fetched if requested.
+     */
+    private void fetchEventGraph(List<com.rsvpplaner.repository.model.Event> dbEvents,
+            boolean withParticipants) {
+        var eventsWithoutTimes = dbEvents.stream()
+                .filter(e -> !Hibernate.isInitialized(e.getEventTimes()))
+                .map(com.rsvpplaner.repository.model.Event::getId)
+                .toList();
+        if (!eventsWithoutTimes.isEmpty()) {
+            eventRepository.findTimesViewByIdIn(eventsWithoutTimes);
+        }
+
+        if (!withParticipants) {
+            return;
+        }
+
+        var privateEvents = dbEvents.stream()
+                .filter(e -> e.getEventType() == EventType.PRIVATE)
+                .toList();
+
+        var eventsWithoutParticipants = privateEvents.stream()
+                .filter(e -> !Hibernate.isInitialized(e.getEventParticipants()))
+                .map(com.rsvpplaner.repository.model.Event::getId)
+                .toList();
+        if (!eventsWithoutParticipants.isEmpty()) {
+            eventRepository.findAttendeeViewByIdIn(eventsWithoutParticipants);
+        }
+
+        var eventsWithoutAvailabilities = privateEvents.stream()
+                .filter(e -> e.getEventParticipants().stream()
+                        .anyMatch(p -> !Hibernate.isInitialized(p.getAvailabilities())))
+                .map(com.rsvpplaner.repository.model.Event::getId)
+                .toList();
+        if (!eventsWithoutAvailabilities.isEmpty()) {
+            eventParticipantRepository.findWithAvailabilitiesByEventIdIn(
+                    eventsWithoutAvailabilities);
+        }
+    }
+
+    static Event mapEvent(com.rsvpplaner.repository.model.Event dbEvent, AttendeeView attendees,
+            long attendeeCount) {
         Event event = new Event();
-        event.setEventId(dbEvent.getId());
+        event.setEventId(dbEvent.getId().toString());
         event.setTitle(dbEvent.getTitle());
         event.setDescription(dbEvent.getDescription());
         event.setLocation(dbEvent.getLocation());
@@ -320,27 +598,33 @@ public class EventService {
         event.dateTimes(dbEvent.getEventTimes().stream().map(
                 d -> new EventDateTimesInner().startTime(d.getStartTime().atOffset(
                         UTC)).endTime(d.getEndTime().atOffset(UTC))).toList());
-        if (dbEvent.getEventType() == EventType.PRIVATE) {
-            event.setAttendees(dbEvent.getEventParticipants().stream()
-                    .map(p -> new Attendee()
-                            .name(p.getName())
-                            .email(p.getEmail())
-                            .notify(p.isNotify())
-                            .attendeeAvailabilities(p.getAvailabilities().stream()
-                                    .map(EventService::mapAttendeeAvailability)
-                                    .toList()))
-                    .toList());
+        if (attendees == AttendeeView.NONE) {
+            return event;
         }
 
         if (dbEvent.getEventType() == EventType.PUBLIC) {
-            event.setAttendeesCount(
-                    availabilityRepository.countDistinctAvailableParticipants(dbEvent,
-                            AttendeeAvailability.StatusEnum.ACCEPTED).intValue());
+            event.setAttendeesCount(dbEvent.getAcceptedCount() + dbEvent.getAcceptedCountDelta());
+        } else if (attendees == AttendeeView.COUNT) {
+            event.setAttendeesCount((int) attendeeCount);
+        } else {
+            event.setAttendees(dbEvent.getEventParticipants().stream()
+                    .map(EventService::mapAttendee)
+                    .toList());
         }
 
         return event;
     }
 
+    private static Attendee mapAttendee(EventParticipant participant) {
+        return new Attendee()
+                .name(participant.getName())
+                .email(participant.getEmail())
+                .notify(participant.isNotify())
+                .attendeeAvailabilities(participant.getAvailabilities().stream()
+                        .map(EventService::mapAttendeeAvailability)
+                        .toList());
+    }
+
     private static AttendeeAvailability mapAttendeeAvailability(EventParticipantAvailability a) {
         return new AttendeeAvailability()
                 .startTime(a.getStartTime().atOffset(UTC))
@@ -348,58 +632,16 @@ public class EventService {
                 .status(a.getStatus());
     }
 
-    public void uploadImage(String eventId, Resource body) {
-        try {
-            if (body == null) {
-                minioClient.removeObject(RemoveObjectArgs.builder().bucket(imageBucketName).object(
-                        eventId).build());
-                return;
-            }
-
-            minioClient.putObject(PutObjectArgs.builder().bucket(imageBucketName).object(
-                    eventId).contentType(
-                    "image/png").stream(body.getInputStream(), body.contentLength(),
-                    1000000000).build());
-
-        } catch (IOException
-                | ErrorResponseException
-                | ServerException
-                | InsufficientDataException
-                | NoSuchAlgorithmException
-                | InvalidKeyException
-                | InvalidResponseException
-                | XmlParserException
-                | InternalException
-                | io.minio.errors.ErrorResponseException e) {
-            throw new IllegalStateException(e);
-        }
-    }
-
-    public Resource getEventImage(String eventId) {
-        try {
-            var image = minioClient.getObject(
-                    GetObjectArgs.builder().bucket(imageBucketName).object(eventId).build()
-            );
-
-            return new ByteArrayResource(image.readAllBytes());
-        } catch (IOException
-                | ErrorResponseException
-                | ServerException
-                | InsufficientDataException
-                | NoSuchAlgorithmException
-                | InvalidKeyException
-                | InvalidResponseException
-                | XmlParserException
-                | InternalException e) {
-            throw new IllegalStateException(e);
-        } catch (io.minio.errors.ErrorResponseException e) {
-            throw new ErrorResponseException(HttpStatus.NOT_FOUND,
-                    String.format("image for event with id %s not found", eventId));
-        }
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
+    public Event updateAttendeeAvailability(String eventId, String attendeeEmail,
+            List<AttendeeAvailability> attendeeAvailability) {
+        return operationMetrics.record("updateAttendeeAvailability",
+                () -> transactionRetry.execute("updateAttendeeAvailability",
+                        () -> applyAttendeeAvailability(eventId, attendeeEmail,
+                                attendeeAvailability)));
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    public Event updateAttendeeAvailability(String eventId, String attendeeEmail,
+    private Event applyAttendeeAvailability(String eventId, String attendeeEmail,
             List<AttendeeAvailability> attendeeAvailability) {
         var event = getEventOrThrow(eventId);
 
@@ -410,20 +652,65 @@ public class EventService {
                     "organiser availability cannot be updated");
         }
 
-        var availabilities = new ArrayList<EventParticipantAvailability>();
+        // the availabilities are only diffed against the state read in this transaction, so
+        // concurrent updates of the same attendee must conflict even if they touch different rows
+        entityManager.lock(eventParticipant, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+        var availabilities = eventParticipant.getAvailabilities();
+        var acceptedBefore = hasAccepted(availabilities);
+
+        var requested = new LinkedHashMap<Slot, AttendeeAvailability>();
         for (var a : attendeeAvailability) {
-            availabilities.add(mapAvailability(event, eventParticipant, a));
+            requested.put(new Slot(a.getStartTime().toInstant(), a.getEndTime().toInstant()), a);
         }
 
-        availabilityRepository.deleteByEventAndParticipant(event, eventParticipant);
+        // only rows whose status changed are updated, the updates of the managed entities are
+        // flushed as one JDBC batch
+        var removed = new ArrayList<EventParticipantAvailability>();
+        for (var stored : availabilities) {
+            var a = requested.remove(new Slot(stored.getStartTime(), stored.getEndTime()));
+            if (a == null) {
+                removed.add(stored);
+            } else if (stored.getStatus() != a.getStatus()) {
+                stored.setStatus(a.getStatus());
+            }
+        }
 
-        eventParticipant.setAvailabilities(availabilities);
-        eventParticipantRepository.save(eventParticipant);
+        var added = requested.values().stream()
+                .map(a -> mapAvailability(event, eventParticipant, a))
+                .toList();
+
+        availabilities.removeAll(removed);
+        availabilityRepository.deleteAll(removed);
+        availabilities.addAll(added);
+        availabilityRepository.saveAll(added);
+
+        updateAcceptedCount(event,
+                (hasAccepted(availabilities) ? 1 : 0) - (acceptedBefore ? 1 : 0));
 
         return mapToApiEvent(event);
     }
 
+    /**
+     * Identifies the availability of a participant for one possible time of an event.
+     */
+    record Slot(Instant startTime, Instant endTime) {
+    }
+
+    static Set<Slot> slotsOf(com.rsvpplaner.repository.model.Event event) {
+        return event.getEventTimes().stream()
+                .map(t -> new Slot(t.getStartTime(), t.getEndTime()))
+                .collect(Collectors.toSet());
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
     public Event deleteAttendee(String eventId, String attendeeEmail) {
+        return operationMetrics.record("deleteAttendee",
+                () -> transactionRetry.execute("deleteAttendee",
+                        () -> removeAttendee(eventId, attendeeEmail)));
+    }
+
+    private Event removeAttendee(String eventId, String attendeeEmail) {
         var event = getEventOrThrow(eventId);
 
         var eventParticipant = getEventParticipant(attendeeEmail, event);
@@ -439,11 +726,34 @@ public class EventService {
 
         event.setEventParticipants(participants);
 
+        var accepted = hasAccepted(eventParticipant.getAvailabilities());
+
         eventParticipantRepository.delete(eventParticipant);
+        updateAcceptedCount(event, accepted ? -1 : 0);
 
         return mapToApiEvent(eventRepository.save(event));
     }
 
+    /**
+     * Applies the given delta to a random shard of the accepted counter of the event in the
+     * database and on the loaded entity, so the response of the current request already reflects
+     * the change.
+     */
+    private void updateAcceptedCount(com.rsvpplaner.repository.model.Event event, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        eventRepository.incrementAcceptedCount(event.getId(),
+                ThreadLocalRandom.current().nextInt(ACCEPTED_COUNT_SHARDS), delta);
+        event.setAcceptedCountDelta(event.getAcceptedCountDelta() + delta);
+    }
+
+    private static boolean hasAccepted(List<EventParticipantAvailability> availabilities) {
+        return availabilities != null && availabilities.stream()
+                .anyMatch(a -> a.getStatus() == AttendeeAvailability.StatusEnum.ACCEPTED);
+    }
+
     private static EventParticipant getEventParticipant(String attendeeEmail,
             com.rsvpplaner.repository.model.Event event) {
         return event.getEventParticipants().stream()
@@ -456,34 +766,83 @@ public class EventService {
 
     private com.rsvpplaner.repository.model.Event getEventOrThrow(String eventId) {
         return eventRepository
-                .findById(eventId)
+                .findAttendeeViewById(Ids.parseEventId(eventId))
                 .orElseThrow(() -> new ErrorResponseException(
                         HttpStatus.NOT_FOUND, String.format("event with id %s not found", eventId)));
     }
 
+    @Transactional(readOnly = true)
     public Attendee getAttendee(String eventId, String attendeeEmail) {
-        return eventParticipantRepository
-                .findByEventIdAndEmail(eventId, attendeeEmail)
-                .map(p -> new Attendee()
-                        .email(p.getEmail())
-                        .name(p.getName())
-                        .notify(p.isNotify())
-                        .attendeeAvailabilities(p.getAvailabilities().stream()
-                                .map(EventService::mapAttendeeAvailability)
-                                .toList()))
+        return operationMetrics.record("getAttendee", () -> eventParticipantRepository
+                .findByEventIdAndEmail(Ids.parseEventId(eventId), attendeeEmail)
+                .map(EventService::mapAttendee)
                 .orElseThrow(() -> new ErrorResponseException(
                         HttpStatus.NOT_FOUND,
                         String.format(
-                                "attendee with email '%s' for event with id '%s' not found", attendeeEmail, eventId)));
+                                "attendee with email '%s' for event with id '%s' not found", attendeeEmail, eventId))));
     }
 
-    public void updateAttendeeNotification(String eventId, String attendeeEmail, boolean notify) {
-        if (!eventParticipantRepository.existsByEventIdAndEmail(eventId, attendeeEmail)) {
-            throw new ErrorResponseException(HttpStatus.NOT_FOUND,
-                    String.format("attendee with email '%s' for event with id '%s' not found",
-                            attendeeEmail, eventId));
+    /**
+     * Returns a page of the attendees of the event ordered by email, continuing after the
+     * attendee encoded in the cursor if one is given. The attendees of public events are not
+     * disclosed, only their count.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Attendee> getAttendees(String eventId, int pageSize, String cursor) {
+        return operationMetrics.record("getAttendees",
+                () -> pageAttendees(eventId, pageSize, cursor));
+    }
+
+    private CursorPage<Attendee> pageAttendees(String eventId, int pageSize, String cursor) {
+        var id = Ids.parseEventId(eventId);
+        var afterEmail = cursor != null ? decodeAttendeeCursor(cursor) : "";
+
+        var eventType = eventRepository.findEventTypeById(id).orElseThrow(
+                () -> new ErrorResponseException(HttpStatus.NOT_FOUND,
+                        String.format("event with id %s not found", eventId)));
+        if (eventType == EventType.PUBLIC) {
+            throw new ErrorResponseException(HttpStatus.FORBIDDEN,
+                    String.format("attendees of public event with id %s are not listed", eventId));
+        }
+
+        // one extra row tells whether there is a following page
+        var participants = eventParticipantRepository.findByEventIdAfterEmail(id, afterEmail,
+                PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (participants.size() > pageSize) {
+            participants = participants.subList(0, pageSize);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    participants.get(pageSize - 1).getEmail().getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (!participants.isEmpty()) {
+            eventParticipantRepository.findWithAvailabilitiesByIdIn(
+                    participants.stream().map(EventParticipant::getId).toList());
         }
 
-        eventParticipantRepository.updateNotify(eventId, attendeeEmail, notify);
+        return new CursorPage<>(participants.stream().map(EventService::mapAttendee).toList(),
+                nextCursor);
+    }
+
+    private static String decodeAttendeeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.EVENT_CACHE, key = "#eventId")
+    public void updateAttendeeNotification(String eventId, String attendeeEmail, boolean notify) {
+        operationMetrics.run("updateAttendeeNotification", () -> {
+            if (!eventParticipantRepository.existsByEventIdAndEmail(Ids.parseEventId(eventId), attendeeEmail)) {
+                throw new ErrorResponseException(HttpStatus.NOT_FOUND,
+                        String.format("attendee with email '%s' for event with id '%s' not found",
+                                attendeeEmail, eventId));
+            }
+
+            eventParticipantRepository.updateNotify(Ids.parseEventId(eventId), attendeeEmail, notify);
+        });
     }
 }
@@ -0,0 +1,238 @@
+package com.rsvpplaner.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Node-local cache of event images on disk, bounded by the total size of the cached files and
+ * evicting the least recently used images first. Entries older than the revalidation interval
+ * must be checked against the ETag of the stored object before they are served again, which also
+ * picks up images replaced through another node.
+ *
+ * <p>Files of evicted or replaced entries may still be about to be sent, e.g. by sendfile after
+ * the request handler returned. They are only deleted after the delete delay, by which time every
+ * response has opened them, and an open file stays readable after it is deleted.
+ */
+@Component
+public class ImageDiskCache {
+    private static final Logger log = LoggerFactory.getLogger(ImageDiskCache.class);
+    private static final String FILE_SUFFIX = ".image";
+    private static final String TEMPORARY_FILE_PREFIX = "download-";
+    private static final int FILL_LOCKS = 64;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maximumBytes;
+    private final Duration revalidateAfter;
+    private final Duration deleteDelay;
+
+    /**
+     * Guards the entries and the retired files. A lock rather than synchronized, which would pin
+     * waiting virtual threads to their carrier. No file I/O happens while it is held.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Cached images in access order, the least recently used entry comes first.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * Files no longer in the cache, in the order they are due for deletion.
+     */
+    private final ArrayDeque<RetiredFile> retiredFiles = new ArrayDeque<>();
+
+    /**
+     * Locks serializing the fills of a key, striped by the hash of the key.
+     */
+    private final Lock[] fillLocks = new Lock[FILL_LOCKS];
+
+    public ImageDiskCache(@Value("${rsvplaner.images.disk-cache.enabled}") boolean enabled,
+            @Value("${rsvplaner.images.disk-cache.directory}") Path directory,
+            @Value("${rsvplaner.images.disk-cache.maximum-size}") DataSize maximumSize,
+            @Value("${rsvplaner.images.disk-cache.revalidate-after}") Duration revalidateAfter,
+            @Value("${rsvplaner.images.disk-cache.delete-delay}") Duration deleteDelay)
+            throws IOException {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maximumBytes = maximumSize.toBytes();
+        this.revalidateAfter = revalidateAfter;
+        this.deleteDelay = deleteDelay;
+        for (int i = 0; i < fillLocks.length; i++) {
+            fillLocks[i] = new ReentrantLock();
+        }
+
+        if (enabled) {
+            Files.createDirectories(directory);
+            deleteFilesOfPreviousRun();
+        }
+    }
+
+    /**
+     * Files of a previous run are not indexed and would never be evicted. Only files created by
+     * the cache are deleted, in case the directory is shared.
+     */
+    private void deleteFilesOfPreviousRun() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                var name = file.getFileName().toString();
+                if (name.endsWith(FILE_SUFFIX) || name.startsWith(TEMPORARY_FILE_PREFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether an image of the given size can be cached at all.
+     */
+    public boolean fits(long size) {
+        return enabled && size <= maximumBytes;
+    }
+
+    public Optional<Entry> get(String key) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(entries.get(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lock to hold while filling or revalidating the entry of the key, so that concurrent misses
+     * of the key download the image once. Whoever acquires the lock must look the entry up again,
+     * it may have been filled while waiting.
+     */
+    public Lock fillLock(String key) {
+        return fillLocks[Math.floorMod(key.hashCode(), fillLocks.length)];
+    }
+
+    public boolean needsRevalidation(Entry entry) {
+        return entry.validatedAt().plus(revalidateAfter).isBefore(Instant.now());
+    }
+
+    /**
+     * Marks the entry as matching the stored object again, if it has not been replaced meanwhile.
+     */
+    public Entry markValidated(String key, Entry entry) {
+        var validated = new Entry(entry.file(), entry.size(), entry.etag(), entry.contentType(),
+                Instant.now());
+        lock.lock();
+        try {
+            entries.replace(key, entry, validated);
+        } finally {
+            lock.unlock();
+        }
+        return validated;
+    }
+
+    /**
+     * Writes the content to the cache directory and adds it to the cache, replacing any previous
+     * entry of the key. Least recently used entries are evicted until the cache fits its size
+     * limit again.
+     */
+    public Entry put(String key, InputStream content, String etag, String contentType)
+            throws IOException {
+        var file = directory.resolve(UUID.randomUUID() + FILE_SUFFIX);
+        var temporaryFile = Files.createTempFile(directory, TEMPORARY_FILE_PREFIX, ".tmp");
+        try {
+            Files.copy(content, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+
+        var entry = new Entry(file, Files.size(file), etag, contentType, Instant.now());
+        lock.lock();
+        try {
+            remove(entries.put(key, entry));
+            cachedBytes += entry.size();
+
+            var iterator = entries.values().iterator();
+            while (cachedBytes > maximumBytes && iterator.hasNext()) {
+                var eldest = iterator.next();
+                iterator.remove();
+                remove(eldest);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return entry;
+    }
+
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            remove(entries.remove(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+
+        cachedBytes -= entry.size();
+        retiredFiles.add(new RetiredFile(entry.file(), Instant.now().plus(deleteDelay)));
+    }
+
+    /**
+     * Deletes the files of removed entries whose delete delay has passed.
+     */
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.SECONDS)
+    public void deleteRetiredFiles() {
+        var now = Instant.now();
+        var dueFiles = new ArrayList<Path>();
+        lock.lock();
+        try {
+            while (!retiredFiles.isEmpty() && retiredFiles.peek().deleteAfter().isBefore(now)) {
+                dueFiles.add(retiredFiles.poll().file());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (var file : dueFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("failed to delete cached image {}", file, e);
+            }
+        }
+    }
+
+    public record Entry(Path file, long size, String etag, String contentType,
+                        Instant validatedAt) {
+    }
+
+    private record RetiredFile(Path file, Instant deleteAfter) {
+    }
+}
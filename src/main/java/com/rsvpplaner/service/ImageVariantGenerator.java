@@ -0,0 +1,320 @@
+package com.rsvpplaner.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PreDestroy;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import rsvplaner.v1.model.ImageSize;
+
+/**
+ * Generates downscaled variants of uploaded event images in the background. The number of images
+ * decoded at the same time is bounded by the number of worker threads. Queued jobs only hold the
+ * event id and the ETag of the uploaded original, the original is read from the object storage
+ * once a worker picks the job up. If the queue is full, uploads wait for a free slot, so bursts of
+ * uploads are slowed down instead of piling up decoded images on the heap.
+ *
+ * <p>Variants are stored with the ETag of their original. A job whose original was replaced
+ * before it ran is skipped, and variants stored while the original was replaced are removed
+ * again, so the variants of an older image never outlive a newer upload.
+ */
+@Component
+public class ImageVariantGenerator {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantGenerator.class);
+
+    public static final List<ImageSize> VARIANT_SIZES = List.of(ImageSize.LIST, ImageSize.DETAIL);
+    private static final String SOURCE_ETAG_METADATA = "source-etag";
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
+    private final MinioClient minioClient;
+    private final ImageDiskCache imageDiskCache;
+    private final String imageBucketName;
+    private final Map<ImageSize, Integer> maximumDimensions;
+    private final long maximumSourcePixels;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Events with a queued job that has not started yet, so reads of missing variants queue at
+     * most one job per event.
+     */
+    private final Set<String> queuedEvents = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Events whose image is not supported or too large, so reads of their variants do not queue
+     * a job for every request. Forgotten on the next upload or after a while.
+     */
+    private final Cache<String, Boolean> unsupportedImages = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    public ImageVariantGenerator(MinioClient minioClient,
+            ImageDiskCache imageDiskCache,
+            @Value("${minio.bucket.eventimages}") String imageBucketName,
+            @Value("${rsvplaner.images.variants.list.maximum-dimension}") int listDimension,
+            @Value("${rsvplaner.images.variants.detail.maximum-dimension}") int detailDimension,
+            @Value("${rsvplaner.images.variants.maximum-source-pixels}") long maximumSourcePixels,
+            @Value("${rsvplaner.images.variants.threads}") int threads,
+            @Value("${rsvplaner.images.variants.queue-capacity}") int queueCapacity,
+            @Value("${rsvplaner.images.variants.submit-timeout}") Duration submitTimeout) {
+        this.minioClient = minioClient;
+        this.imageDiskCache = imageDiskCache;
+        this.imageBucketName = imageBucketName;
+        this.maximumDimensions = Map.of(
+                ImageSize.LIST, listDimension,
+                ImageSize.DETAIL, detailDimension);
+        this.maximumSourcePixels = maximumSourcePixels;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("image-variants-"),
+                (job, executor) -> waitForQueueSlot(job, executor, submitTimeout));
+        // submitIfIdle adds jobs to the queue directly, which only works with running workers
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Name of the object a variant of the event image is stored as. The original image is stored
+     * under the event id.
+     */
+    public static String objectName(String eventId, ImageSize size) {
+        if (size == ImageSize.ORIGINAL) {
+            return eventId;
+        }
+
+        return "variants/" + size.name().toLowerCase() + "/" + eventId;
+    }
+
+    /**
+     * Queues the generation of all variants of the uploaded image with the given ETag. Blocks
+     * while the queue is full. If no slot becomes free within the submit timeout the job is
+     * dropped, the original is stored already and the variants are generated once they are
+     * requested, see {@link #submitIfIdle}.
+     */
+    public void submit(String eventId, String etag) {
+        unsupportedImages.invalidate(eventId);
+        queuedEvents.add(eventId);
+        try {
+            executor.execute(job(eventId, unquote(etag)));
+        } catch (RejectedExecutionException e) {
+            queuedEvents.remove(eventId);
+            log.warn("image variant queue is full, the variants of event {} are generated once "
+                     + "they are requested", eventId);
+        }
+    }
+
+    /**
+     * Queues the generation of the variants of the current image of the event, unless a job for
+     * the event is queued already, the image is known to be unsupported or the queue is full.
+     * Never blocks.
+     */
+    public void submitIfIdle(String eventId) {
+        if (unsupportedImages.getIfPresent(eventId) != null || !queuedEvents.add(eventId)) {
+            return;
+        }
+
+        if (executor.isShutdown() || !executor.getQueue().offer(job(eventId, null))) {
+            queuedEvents.remove(eventId);
+        }
+    }
+
+    private Runnable job(String eventId, String etag) {
+        return () -> {
+            queuedEvents.remove(eventId);
+            generateVariants(eventId, etag);
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static void waitForQueueSlot(Runnable job, ThreadPoolExecutor executor,
+            Duration timeout) {
+        try {
+            if (executor.isShutdown()
+                    || !executor.getQueue().offer(job, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("image variant queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    /**
+     * @param expectedEtag ETag of the original the job was queued for, {@code null} for whatever
+     *                     original is stored
+     */
+    private void generateVariants(String eventId, String expectedEtag) {
+        try (var original = minioClient.getObject(
+                GetObjectArgs.builder().bucket(imageBucketName).object(eventId).build())) {
+            var etag = unquote(original.headers().get(HttpHeaders.ETAG));
+            if (expectedEtag != null && !expectedEtag.equals(etag)) {
+                log.debug("skipped the image variants of event {}, the image was replaced",
+                        eventId);
+                return;
+            }
+
+            var source = readImage(original);
+            if (source == null) {
+                unsupportedImages.put(eventId, Boolean.TRUE);
+                log.info("no variants generated for the image of event {}, the format is not "
+                         + "supported or the image is too large", eventId);
+                return;
+            }
+
+            for (var size : VARIANT_SIZES) {
+                storeVariant(objectName(eventId, size),
+                        resize(source, maximumDimensions.get(size)), etag);
+            }
+            removeVariantsIfReplaced(eventId, etag);
+        } catch (ErrorResponseException e) {
+            if (!NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                log.warn("failed to generate the image variants of event {}", eventId, e);
+            }
+        } catch (Exception e) {
+            log.warn("failed to generate the image variants of event {}", eventId, e);
+        }
+    }
+
+    /**
+     * Removes the variants just stored from the original with the given ETag if the original was
+     * replaced or removed meanwhile. Variants already stored from the newer original are kept.
+     */
+    private void removeVariantsIfReplaced(String eventId, String etag) throws Exception {
+        try {
+            var original = minioClient.statObject(
+                    StatObjectArgs.builder().bucket(imageBucketName).object(eventId).build());
+            if (etag.equals(unquote(original.etag()))) {
+                return;
+            }
+        } catch (ErrorResponseException e) {
+            if (!NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                throw e;
+            }
+        }
+
+        for (var size : VARIANT_SIZES) {
+            var objectName = objectName(eventId, size);
+            try {
+                var variant = minioClient.statObject(
+                        StatObjectArgs.builder().bucket(imageBucketName).object(objectName)
+                                .build());
+                if (!etag.equals(variant.userMetadata().get(SOURCE_ETAG_METADATA))) {
+                    continue;
+                }
+            } catch (ErrorResponseException e) {
+                if (!NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                    throw e;
+                }
+                continue;
+            }
+
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(imageBucketName)
+                    .object(objectName).build());
+            imageDiskCache.invalidate(objectName);
+        }
+        log.debug("removed the image variants of event {}, the image was replaced", eventId);
+    }
+
+    private static String unquote(String etag) {
+        return StringUtils.strip(etag, "\"");
+    }
+
+    /**
+     * Decodes the image, unless it has more pixels than allowed. The dimensions are read from the
+     * header first, so oversized images are never decoded.
+     */
+    private BufferedImage readImage(InputStream content) throws IOException {
+        try (var input = ImageIO.createImageInputStream(content)) {
+            var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maximumSourcePixels) {
+                    return null;
+                }
+
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maximumDimension) {
+        var scale = Math.min(1.0,
+                (double) maximumDimension / Math.max(source.getWidth(), source.getHeight()));
+        var width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        var height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        var target = new BufferedImage(width, height, source.getColorModel().hasAlpha()
+                ? BufferedImage.TYPE_INT_ARGB
+                : BufferedImage.TYPE_INT_RGB);
+        var graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+                    RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return target;
+    }
+
+    /**
+     * Stores the variant as PNG if it has transparency and as JPEG otherwise, along with the ETag
+     * of its original.
+     */
+    private void storeVariant(String objectName, BufferedImage variant, String sourceEtag)
+            throws Exception {
+        var png = variant.getColorModel().hasAlpha();
+        var content = new ByteArrayOutputStream();
+        ImageIO.write(variant, png ? "png" : "jpg", content);
+
+        minioClient.putObject(PutObjectArgs.builder()
+                .bucket(imageBucketName)
+                .object(objectName)
+                .contentType(png ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE)
+                .userMetadata(Map.of(SOURCE_ETAG_METADATA, sourceEtag))
+                .stream(new ByteArrayInputStream(content.toByteArray()), content.size(), -1)
+                .build());
+        imageDiskCache.invalidate(objectName);
+    }
+}
@@ -0,0 +1,81 @@
+package com.rsvpplaner.service;
+
+import com.rsvpplaner.controller.ErrorResponseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import rsvplaner.v1.model.AttendeeImportResult;
+import rsvplaner.v1.model.Event;
+import rsvplaner.v1.model.EventType;
+
+/**
+ * Times service operations as {@code rsvplaner.events.operations}, tagged by operation, event type
+ * and outcome. The event type is taken from the result if it is an event, otherwise it has to be
+ * given or is UNKNOWN. The outcome is SUCCESS, CLIENT_ERROR for 4xx errors or SERVER_ERROR.
+ */
+@Component
+public class OperationMetrics {
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public OperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, Supplier<T> action) {
+        return record(operation, null, action);
+    }
+
+    /**
+     * @param eventType tag for operations whose result is not a single event, e.g. the event type
+     *                  searched for
+     */
+    public <T> T record(String operation, EventType eventType, Supplier<T> action) {
+        var sample = Timer.start(meterRegistry);
+        var outcome = "SERVER_ERROR";
+        String type = eventType != null ? eventType.name() : UNKNOWN;
+        try {
+            var result = action.get();
+            if (result instanceof Event event && event.getEventType() != null) {
+                type = event.getEventType().name();
+            }
+            outcome = "SUCCESS";
+            return result;
+        } catch (ErrorResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                outcome = "CLIENT_ERROR";
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("rsvplaner.events.operations")
+                    .tag("operation", operation)
+                    .tag("event_type", type)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Counts the rows of an attendee import by their result as
+     * {@code rsvplaner.events.attendees.imported}.
+     */
+    void countImported(List<AttendeeImportResult> results) {
+        results.stream()
+                .collect(Collectors.groupingBy(AttendeeImportResult::getStatus,
+                        Collectors.counting()))
+                .forEach((status, count) -> meterRegistry.counter(
+                        "rsvplaner.events.attendees.imported", "status", status.name())
+                        .increment(count));
+    }
+}
@@ -0,0 +1,96 @@
+package com.rsvpplaner.service;
+
+import com.rsvpplaner.controller.ErrorResponseException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Runs write operations in READ COMMITTED transactions and retries them when they lose a race,
+ * i.e. on optimistic lock failures, serialization failures and deadlocks. Conflicts stay local to
+ * the rows that actually collide instead of failing whole SERIALIZABLE transactions, and a
+ * conflicting attempt is repeated after an exponential backoff with full jitter so that the
+ * colliding requests do not meet again right away.
+ */
+@Component
+public class TransactionRetry {
+    private static final Logger log = LoggerFactory.getLogger(TransactionRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public TransactionRetry(PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${rsvplaner.transactions.retry.max-attempts}") int maxAttempts,
+            @Value("${rsvplaner.transactions.retry.initial-backoff}") Duration initialBackoff,
+            @Value("${rsvplaner.transactions.retry.max-backoff}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Runs the action in a new transaction, retrying it on conflicts up to the configured number
+     * of attempts. Must not be called inside a transaction, a failed attempt could not be rolled
+     * back on its own.
+     *
+     * @param operation name of the operation, used as tag of the conflict and retry counters
+     * @throws ErrorResponseException with status 409 if every attempt conflicted
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "retried transactions cannot join an existing transaction");
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                meterRegistry.counter("rsvplaner.transactions.conflicts",
+                        "operation", operation).increment();
+
+                if (attempt >= maxAttempts) {
+                    log.warn("{} still conflicts after {} attempts", operation, attempt, e);
+                    meterRegistry.counter("rsvplaner.transactions.retries.exhausted",
+                            "operation", operation).increment();
+                    throw new ErrorResponseException(HttpStatus.CONFLICT,
+                            "the event was modified concurrently, please try again");
+                }
+
+                log.debug("{} conflicted in attempt {}, retrying", operation, attempt, e);
+                meterRegistry.counter("rsvplaner.transactions.retries",
+                        "operation", operation).increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        var ceiling = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "interrupted while retrying a conflicting operation");
+        }
+    }
+}
@@ -0,0 +1 @@
+create index event_participant_event_id_email_idx ON event_participant (event_id, email);
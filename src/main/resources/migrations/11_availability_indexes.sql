@@ -0,0 +1,5 @@
+create index event_participant_availability_slot_idx
+    ON event_participant_availability (event_id, start_time, end_time);
+
+create index event_participant_availability_participant_idx
+    ON event_participant_availability (event_participant_id);
@@ -0,0 +1,9 @@
+create table event_accepted_count_delta
+(
+    event_id uuid     not null,
+    shard    smallint not null,
+    delta    integer  not null,
+
+    constraint event_accepted_count_delta_pk primary key (event_id, shard),
+    constraint accepted_count_delta_event foreign key (event_id) references event (id) on delete cascade
+);
@@ -0,0 +1,10 @@
+-- a range cannot end before it starts, such times could never have matched a search either
+update event_times
+set start_time = end_time,
+    end_time   = start_time
+where start_time > end_time;
+
+drop index event_times_start_time_idx;
+drop index event_times_end_time_idx;
+
+create index event_times_range_idx ON event_times using gist (tstzrange(start_time, end_time));
@@ -0,0 +1,8 @@
+alter table event
+    add column accepted_count integer not null default 0;
+
+update event e
+set accepted_count = (select count(distinct epa.event_participant_id)
+                      from event_participant_availability epa
+                      where epa.event_id = e.id
+                        and epa.status = 'ACCEPTED');
@@ -0,0 +1,3 @@
+create index event_times_start_time_idx ON event_times (start_time, end_time, event_id);
+
+create index event_times_end_time_idx ON event_times (end_time, start_time, event_id);
@@ -0,0 +1 @@
+create index event_type_title_id_idx ON event (event_type, title, id);
@@ -0,0 +1,3 @@
+create extension if not exists pg_trgm;
+
+create index event_title_trgm_idx ON event using gin (title gin_trgm_ops);
@@ -0,0 +1,33 @@
+-- existing ids are random UUIDs stored as text and keep their value, new ids are time-ordered
+alter table event_times
+    drop constraint event_times_event_id;
+alter table event_participant
+    drop constraint participant_event_id;
+alter table event_participant_availability
+    drop constraint participant_availability_id,
+    drop constraint participant_availability_event;
+
+alter table event
+    alter column id type uuid using id::uuid;
+
+alter table event_times
+    alter column id type uuid using id::uuid,
+    alter column event_id type uuid using event_id::uuid;
+
+alter table event_participant
+    alter column id type uuid using id::uuid,
+    alter column event_id type uuid using event_id::uuid;
+
+alter table event_participant_availability
+    alter column id type uuid using id::uuid,
+    alter column event_participant_id type uuid using event_participant_id::uuid,
+    alter column event_id type uuid using event_id::uuid;
+
+alter table event_times
+    add constraint event_times_event_id foreign key (event_id) references event (id) on delete cascade;
+alter table event_participant
+    add constraint participant_event_id foreign key (event_id) references event (id) on delete cascade;
+alter table event_participant_availability
+    add constraint participant_availability_id foreign key (event_participant_id)
+        references event_participant (id) on delete cascade,
+    add constraint participant_availability_event foreign key (event_id) references event (id) on delete cascade;
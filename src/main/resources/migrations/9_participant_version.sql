@@ -0,0 +1,2 @@
+alter table event_participant
+    add column version bigint not null default 0;
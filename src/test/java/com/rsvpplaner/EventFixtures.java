@@ -0,0 +1,42 @@
+package com.rsvpplaner;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.stream.IntStream;
+import rsvplaner.v1.model.EventDateTimesInner;
+import rsvplaner.v1.model.EventType;
+import rsvplaner.v1.model.InvitedPerson;
+import rsvplaner.v1.model.NewEvent;
+import rsvplaner.v1.model.Organizer;
+
+/**
+ * New events for tests. Possible times are four hours long on consecutive days from
+ * 2030-01-01T18:00Z, invitees are named {@code invitee<n>@example.com} from 0.
+ */
+public final class EventFixtures {
+
+    private EventFixtures() {
+    }
+
+    public static NewEvent newEvent(EventType eventType, String title, int possibleTimes,
+            int invitees) {
+        var start = OffsetDateTime.of(2030, 1, 1, 18, 0, 0, 0, ZoneOffset.UTC);
+
+        return new NewEvent()
+                .title(title)
+                .description("Test event")
+                .location("Office")
+                .eventType(eventType)
+                .organizer(new Organizer().name("Organizer").email("organizer@example.com"))
+                .possibleDateTimes(IntStream.range(0, possibleTimes)
+                        .mapToObj(i -> new EventDateTimesInner()
+                                .startTime(start.plusDays(i))
+                                .endTime(start.plusDays(i).plusHours(4)))
+                        .toList())
+                .invitedPeople(IntStream.range(0, invitees)
+                        .mapToObj(i -> new InvitedPerson()
+                                .name("Invitee " + i)
+                                .email("invitee" + i + "@example.com"))
+                        .toList());
+    }
+}
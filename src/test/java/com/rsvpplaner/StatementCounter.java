@@ -0,0 +1,87 @@
+package com.rsvpplaner;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Records every statement execution the JDBC driver receives. A batch counts as one execution,
+ * since it is sent to the database in one round trip.
+ */
+public class StatementCounter implements QueryExecutionListener {
+
+    private final List<Execution> executions = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (var query : queryInfoList) {
+            executions.add(new Execution(query.getQuery(), execInfo.isBatch(),
+                    execInfo.isBatch() ? query.getParametersList().size() : 1));
+        }
+    }
+
+    public void reset() {
+        executions.clear();
+    }
+
+    public List<Execution> executions() {
+        return List.copyOf(executions);
+    }
+
+    /**
+     * Returns the executions of statements starting with the given keyword, e.g. {@code select}.
+     */
+    public List<Execution> executions(String keyword) {
+        var prefix = keyword.toLowerCase(Locale.ROOT);
+        return executions.stream()
+                .filter(e -> e.sql().stripLeading().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .toList();
+    }
+
+    /**
+     * @param rows number of parameter sets sent with the statement, 1 unless it is a batch
+     */
+    public record Execution(String sql, boolean batch, int rows) {
+    }
+
+    /**
+     * Wraps the application data source so that the {@link StatementCounter} bean sees all
+     * statements.
+     */
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSource(StatementCounter counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(counter)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
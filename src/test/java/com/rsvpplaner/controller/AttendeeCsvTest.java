@@ -0,0 +1,120 @@
+package com.rsvpplaner.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import rsvplaner.v1.model.Attendee;
+import rsvplaner.v1.model.AttendeeAvailability;
+import rsvplaner.v1.model.EventDateTimesInner;
+
+class AttendeeCsvTest {
+    private static final int MAX_ATTENDEES = 10;
+
+    @Test
+    void readsQuotedComma() throws IOException {
+        var attendees = read("email,name\r\nann@example.com,\"Doe, Ann\"\r\n");
+
+        assertThat(attendees).singleElement()
+                .satisfies(a -> assertThat(a.getName()).isEqualTo("Doe, Ann"));
+    }
+
+    @Test
+    void readsEscapedQuotes() throws IOException {
+        var attendees = read("email,name\nann@example.com,\"Ann \"\"Annie\"\" Doe\"\n");
+
+        assertThat(attendees).singleElement()
+                .satisfies(a -> assertThat(a.getName()).isEqualTo("Ann \"Annie\" Doe"));
+    }
+
+    @Test
+    void readsCrlfAndLfLineEndingsAlike() throws IOException {
+        var attendees = read("email,notify\r\nann@example.com,true\nbob@example.com,false\r\n");
+
+        assertThat(attendees).extracting(Attendee::getEmail, Attendee::isNotify)
+                .containsExactly(tuple("ann@example.com", true), tuple("bob@example.com", false));
+    }
+
+    @Test
+    void readsNewlineInQuotedField() throws IOException {
+        var attendees = read(
+                "email,name\r\nann@example.com,\"Ann\r\nDoe\"\r\nbob@example.com,Bob\r\n");
+
+        assertThat(attendees).extracting(Attendee::getName)
+                .containsExactly("Ann\r\nDoe", "Bob");
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        var attendees = read("email\r\n\r\nann@example.com\r\n\r\n");
+
+        assertThat(attendees).extracting(Attendee::getEmail).containsExactly("ann@example.com");
+    }
+
+    @Test
+    void rejectsHeaderWithoutEmailColumn() {
+        assertThatThrownBy(() -> read("name,notify\r\nAnn,true\r\n"))
+                .isInstanceOfSatisfying(ErrorResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatThrownBy(() -> read("email,name\r\nann@example.com,\"Ann\r\n"))
+                .isInstanceOfSatisfying(ErrorResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void rejectsMoreRowsThanAllowed() {
+        var csv = new StringBuilder("email\r\n");
+        for (int i = 0; i <= MAX_ATTENDEES; i++) {
+            csv.append("attendee").append(i).append("@example.com\r\n");
+        }
+
+        assertThatThrownBy(() -> read(csv.toString()))
+                .isInstanceOfSatisfying(ErrorResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void readsWhatItWrites() throws IOException {
+        var dateTime = new EventDateTimesInner()
+                .startTime(OffsetDateTime.parse("2024-06-01T18:00Z"))
+                .endTime(OffsetDateTime.parse("2024-06-01T22:00Z"));
+        var attendee = new Attendee()
+                .email("=ann@example.com")
+                .name("Doe, \"Ann\"\nthe second")
+                .notify(true)
+                .attendeeAvailabilities(List.of(new AttendeeAvailability()
+                        .startTime(dateTime.getStartTime())
+                        .endTime(dateTime.getEndTime())
+                        .status(AttendeeAvailability.StatusEnum.ACCEPTED)));
+
+        var attendees = read(AttendeeCsv.header(List.of(dateTime))
+                + AttendeeCsv.row(attendee, List.of(dateTime)));
+
+        assertThat(attendees).singleElement().satisfies(a -> {
+            assertThat(a.getEmail()).isEqualTo(attendee.getEmail());
+            assertThat(a.getName()).isEqualTo(attendee.getName());
+            assertThat(a.isNotify()).isTrue();
+            assertThat(a.getAttendeeAvailabilities()).singleElement()
+                    .satisfies(availability -> {
+                        assertThat(availability.getStartTime())
+                                .isEqualTo(dateTime.getStartTime());
+                        assertThat(availability.getStatus())
+                                .isEqualTo(AttendeeAvailability.StatusEnum.ACCEPTED);
+                    });
+        });
+    }
+
+    private static List<Attendee> read(String csv) throws IOException {
+        return AttendeeCsv.read(new StringReader(csv), MAX_ATTENDEES);
+    }
+}
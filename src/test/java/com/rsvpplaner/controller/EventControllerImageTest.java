@@ -0,0 +1,93 @@
+package com.rsvpplaner.controller;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.rsvpplaner.config.WebSecurity;
+import com.rsvpplaner.service.EventImage;
+import com.rsvpplaner.service.EventImageService;
+import com.rsvpplaner.service.EventService;
+import com.rsvpplaner.service.ImageDiskCache;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import rsvplaner.v1.model.ImageSize;
+
+/**
+ * Range requests the controller does not serve as partial content must return the whole image,
+ * no matter whether it is streamed from the object storage or served from the disk cache.
+ */
+@WebMvcTest(EventController.class)
+@Import(WebSecurity.class)
+class EventControllerImageTest {
+    private static final String EVENT_ID = "0190b0d4-5c8e-7a31-9d3e-1f2a3b4c5d6e";
+    private static final String IMAGE_PATH = "/api/v1/event/" + EVENT_ID + "/image";
+    private static final byte[] IMAGE = "0123456789".getBytes();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventService eventService;
+
+    @MockBean
+    private EventImageService eventImageService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void multipleRangesOfStreamedImageReturnWholeImage() throws Exception {
+        givenStreamedImage();
+
+        mockMvc.perform(get(IMAGE_PATH).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, IMAGE.length))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void invalidRangeOfStreamedImageReturnsWholeImage() throws Exception {
+        givenStreamedImage();
+
+        mockMvc.perform(get(IMAGE_PATH).header(HttpHeaders.RANGE, "bytes=6-2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void multipleRangesOfCachedImageReturnWholeImage() throws Exception {
+        var file = Files.write(directory.resolve("image"), IMAGE);
+        var entry = new ImageDiskCache.Entry(file, IMAGE.length, "etag", "image/png",
+                Instant.now());
+        given(eventImageService.getEventImage(eq(EVENT_ID), eq(ImageSize.ORIGINAL), isNull()))
+                .willReturn(EventImage.cached(entry, null));
+
+        mockMvc.perform(get(IMAGE_PATH).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    private void givenStreamedImage() {
+        given(eventImageService.getEventImage(eq(EVENT_ID), eq(ImageSize.ORIGINAL), isNull()))
+                .willReturn(EventImage.streamed(new ByteArrayInputStream(IMAGE), "image/png",
+                        IMAGE.length, null, "\"etag\""));
+    }
+}
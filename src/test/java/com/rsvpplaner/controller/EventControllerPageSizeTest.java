@@ -0,0 +1,68 @@
+package com.rsvpplaner.controller;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.rsvpplaner.config.WebSecurity;
+import com.rsvpplaner.service.EventImageService;
+import com.rsvpplaner.service.EventService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Paging parameters outside of the documented range are rejected before anything is searched.
+ */
+@WebMvcTest(EventController.class)
+@Import(WebSecurity.class)
+class EventControllerPageSizeTest {
+    private static final String EVENT_ID = "0190b0d4-5c8e-7a31-9d3e-1f2a3b4c5d6e";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EventService eventService;
+
+    @MockBean
+    private EventImageService eventImageService;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "0", "101"})
+    void findEventsRejectsPageSize(String pageSize) throws Exception {
+        mockMvc.perform(get("/api/v1/event/")
+                        .param("page_number", "0")
+                        .param("page_size", pageSize)
+                        .param("event_type", "PUBLIC"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "0", "101"})
+    void getEventAttendeesRejectsPageSize(String pageSize) throws Exception {
+        mockMvc.perform(get("/api/v1/event/" + EVENT_ID + "/attendees")
+                        .param("page_size", pageSize))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void findEventsRejectsNegativePageNumber() throws Exception {
+        mockMvc.perform(get("/api/v1/event/")
+                        .param("page_number", "-1")
+                        .param("page_size", "10")
+                        .param("event_type", "PUBLIC"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
+    }
+}
@@ -0,0 +1,46 @@
+package com.rsvpplaner.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class EventCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        var cursor = new EventCursor("Party: 10:00 \u2013 \uD83C\uDF89", UUID.randomUUID());
+
+        assertThat(EventCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decodesEmptyTitle() {
+        var cursor = new EventCursor("", UUID.randomUUID());
+
+        assertThat(EventCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsTokenThatIsNotBase64() {
+        assertThatIllegalArgumentException().isThrownBy(() -> EventCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void rejectsTokenWithoutSeparator() {
+        assertThatIllegalArgumentException().isThrownBy(() -> EventCursor.decode(encode("title")));
+    }
+
+    @Test
+    void rejectsTokenWithoutId() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> EventCursor.decode(encode("not-an-id:title")));
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
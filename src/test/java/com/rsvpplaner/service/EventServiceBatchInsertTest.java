@@ -0,0 +1,55 @@
+package com.rsvpplaner.service;
+
+import static com.rsvpplaner.EventFixtures.newEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rsvpplaner.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import rsvplaner.v1.model.EventType;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size="
+        + EventServiceBatchInsertTest.BATCH_SIZE)
+@Import(StatementCounter.Config.class)
+class EventServiceBatchInsertTest {
+
+    static final int BATCH_SIZE = 100;
+    private static final int INVITEES = 500;
+    private static final int POSSIBLE_TIMES = 10;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void resetStatementCounter() {
+        statementCounter.reset();
+    }
+
+    @Test
+    void createEventSendsInsertsInBatches() {
+        eventService.createEvent(
+                newEvent(EventType.PRIVATE, "Company party", POSSIBLE_TIMES, INVITEES));
+
+        var participants = INVITEES + 1;
+        var availabilities = participants * POSSIBLE_TIMES;
+        var inserts = statementCounter.executions("insert");
+
+        assertThat(inserts).allMatch(StatementCounter.Execution::batch);
+        assertThat(inserts.stream().mapToInt(StatementCounter.Execution::rows).sum())
+                .isEqualTo(1 + POSSIBLE_TIMES + participants + availabilities);
+        assertThat(inserts).hasSize(batches(1) + batches(POSSIBLE_TIMES) + batches(participants)
+                + batches(availabilities));
+        // the new entities are persisted, not merged, so nothing is selected before inserting
+        assertThat(statementCounter.executions("select")).isEmpty();
+    }
+
+    private static int batches(int rows) {
+        return (rows + BATCH_SIZE - 1) / BATCH_SIZE;
+    }
+}
@@ -0,0 +1,86 @@
+package com.rsvpplaner.service;
+
+import static com.rsvpplaner.EventFixtures.newEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import rsvplaner.v1.model.Attendee;
+import rsvplaner.v1.model.AttendeeView;
+import rsvplaner.v1.model.EventType;
+
+/**
+ * A mutation of an event must never be followed by reading the event from before it out of the
+ * event cache, not even while other requests keep loading the event into the cache.
+ */
+@SpringBootTest
+class EventServiceCacheTest {
+
+    private static final int READERS = 4;
+    private static final int MUTATIONS = 20;
+
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void getEventAfterMutationReturnsMutatedEvent() {
+        var eventId = eventService.createEvent(
+                newEvent(EventType.PRIVATE, "cached", 1, 1)).getEventId();
+        eventService.getEvent(eventId, AttendeeView.FULL);
+
+        eventService.addEventAttendee(eventId, attendee(0));
+
+        assertThat(eventService.getEvent(eventId, AttendeeView.FULL).getAttendees())
+                .extracting(Attendee::getEmail)
+                .contains(attendee(0).getEmail());
+    }
+
+    @Test
+    void getEventAfterMutationRacingLoadsReturnsMutatedEvent() throws Exception {
+        var eventId = eventService.createEvent(
+                newEvent(EventType.PRIVATE, "racing", 1, 1)).getEventId();
+
+        var stopped = new AtomicBoolean();
+        var executor = Executors.newFixedThreadPool(READERS);
+        try {
+            var readers = new ArrayList<Future<?>>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit(() -> {
+                    while (!stopped.get()) {
+                        eventService.getEvent(eventId, AttendeeView.FULL);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < MUTATIONS; i++) {
+                eventService.addEventAttendee(eventId, attendee(i));
+
+                assertThat(eventService.getEvent(eventId, AttendeeView.FULL).getAttendees())
+                        .extracting(Attendee::getEmail)
+                        .as("attendees after adding %s", attendee(i).getEmail())
+                        .contains(attendee(i).getEmail());
+            }
+
+            stopped.set(true);
+            for (var reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            stopped.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private static Attendee attendee(int i) {
+        return new Attendee()
+                .email("added" + i + "@example.com")
+                .name("Added " + i)
+                .attendeeAvailabilities(new ArrayList<>());
+    }
+}
@@ -0,0 +1,85 @@
+package com.rsvpplaner.service;
+
+import static com.rsvpplaner.EventFixtures.newEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rsvpplaner.controller.ErrorResponseException;
+import com.rsvpplaner.repository.EventCursor;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import rsvplaner.v1.model.AttendeeView;
+import rsvplaner.v1.model.Event;
+import rsvplaner.v1.model.EventType;
+
+/**
+ * Paging through an event search by the cursor each page returns.
+ */
+@SpringBootTest
+class EventServiceCursorTest {
+
+    private static final int EVENTS = 5;
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void cursorsPageThroughEveryEventOnce() {
+        var title = "cursor " + UUID.randomUUID();
+        var created = IntStream.range(0, EVENTS)
+                .mapToObj(i -> eventService.createEvent(newEvent(EventType.PRIVATE, title, 1, 0)))
+                .map(Event::getEventId)
+                .sorted()
+                .toList();
+
+        var found = new ArrayList<String>();
+        var pages = 0;
+        String cursor = null;
+        do {
+            // the page number is ignored once there is a cursor
+            var page = find(title, 7, cursor);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            page.items().forEach(e -> found.add(e.getEventId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(found).containsExactlyElementsOf(created);
+        assertThat(pages).isEqualTo((EVENTS + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    @Test
+    void cursorPastLastEventFindsNothing() {
+        var title = "cursor " + UUID.randomUUID();
+        eventService.createEvent(newEvent(EventType.PRIVATE, title, 1, 0));
+        var last = new EventCursor(title, new UUID(-1, -1)).encode();
+
+        assertStatus(() -> find(title, 0, last), HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void garbageCursorIsBadRequest() {
+        var title = "cursor " + UUID.randomUUID();
+        eventService.createEvent(newEvent(EventType.PRIVATE, title, 1, 0));
+
+        assertStatus(() -> find(title, 0, "not a cursor!"), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> find(title, 0, "dGl0bGU"), HttpStatus.BAD_REQUEST);
+    }
+
+    private CursorPage<Event> find(String title, int pageNumber, String cursor) {
+        return eventService.findEvents(pageNumber, PAGE_SIZE, cursor, EventType.PRIVATE, title,
+                null, null, null, null, AttendeeView.NONE);
+    }
+
+    private static void assertStatus(Runnable search, HttpStatus status) {
+        assertThatThrownBy(search::run)
+                .isInstanceOfSatisfying(ErrorResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+}
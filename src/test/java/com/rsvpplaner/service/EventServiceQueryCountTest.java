@@ -0,0 +1,134 @@
+package com.rsvpplaner.service;
+
+import static com.rsvpplaner.EventFixtures.newEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rsvpplaner.StatementCounter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import rsvplaner.v1.model.Attendee;
+import rsvplaner.v1.model.AttendeeAvailability;
+import rsvplaner.v1.model.AttendeeView;
+import rsvplaner.v1.model.Event;
+import rsvplaner.v1.model.EventType;
+
+/**
+ * Guards the number of statements the service operations send to the database. Every operation
+ * runs against events with a growing number of attendees and has to send the same number of
+ * statements each time, at most the given bound. A batch counts as one statement. The sizes stay
+ * below the JDBC batch size, so batched inserts and updates are always one statement.
+ */
+@SpringBootTest
+@Import(StatementCounter.Config.class)
+class EventServiceQueryCountTest {
+
+    private static final int[] ATTENDEES = {1, 10, 30};
+    private static final int POSSIBLE_TIMES = 3;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void createEvent() {
+        // event, times, participants, availabilities
+        assertStatements(4, attendees -> {
+            var newEvent = newEvent(EventType.PRIVATE, "create", POSSIBLE_TIMES, attendees);
+            return () -> eventService.createEvent(newEvent);
+        });
+        assertThat(statementCounter.executions("select")).isEmpty();
+    }
+
+    @Test
+    void getEvent() {
+        // event with times, participants, availabilities
+        assertStatements(3, attendees -> {
+            var eventId = createEvent(EventType.PRIVATE, "get", attendees).getEventId();
+            return () -> eventService.getEvent(eventId, AttendeeView.FULL);
+        });
+    }
+
+    @Test
+    void findEvents() {
+        // search, times, participants, availabilities
+        assertStatements(4, attendees -> {
+            var title = "find " + UUID.randomUUID();
+            for (int i = 0; i < 3; i++) {
+                createEvent(EventType.PRIVATE, title, attendees);
+            }
+            return () -> assertThat(eventService.findEvents(0, 20, null, null, title, null, null,
+                    null, null, AttendeeView.FULL).items()).hasSize(3);
+        });
+    }
+
+    @Test
+    void addEventAttendee() {
+        // event with times, existing email, participant, availabilities, accepted counter and
+        // the participants and availabilities of the returned event
+        assertStatements(7, attendees -> {
+            var event = createEvent(EventType.PRIVATE, "add", attendees);
+            var attendee = new Attendee()
+                    .email("new@example.com")
+                    .name("New")
+                    .attendeeAvailabilities(availabilities(event,
+                            AttendeeAvailability.StatusEnum.ACCEPTED));
+            return () -> eventService.addEventAttendee(event.getEventId(), attendee);
+        });
+    }
+
+    @Test
+    void updateAttendeeAvailability() {
+        // event with participants, availabilities of the attendee, their update, accepted
+        // counter, times and the availabilities of the other participants of the returned event,
+        // version of the attendee
+        assertStatements(7, attendees -> {
+            var event = createEvent(EventType.PRIVATE, "update", attendees);
+            var availabilities = availabilities(event, AttendeeAvailability.StatusEnum.ACCEPTED);
+            return () -> eventService.updateAttendeeAvailability(event.getEventId(),
+                    "invitee0@example.com", availabilities);
+        });
+    }
+
+    /**
+     * Prepares the operation for every size in {@link #ATTENDEES} and counts the statements of
+     * the operation alone.
+     */
+    private void assertStatements(int max, IntFunction<Runnable> operation) {
+        var statements = new LinkedHashMap<Integer, Integer>();
+        for (int attendees : ATTENDEES) {
+            var call = operation.apply(attendees);
+            statementCounter.reset();
+            call.run();
+            statements.put(attendees, statementCounter.executions().size());
+        }
+
+        assertThat(statements.values())
+                .as("statements by number of attendees %s: %s", Arrays.toString(ATTENDEES),
+                        statements)
+                .allMatch(count -> count <= max)
+                .containsOnly(statements.get(ATTENDEES[0]));
+    }
+
+    private Event createEvent(EventType eventType, String title, int attendees) {
+        return eventService.createEvent(newEvent(eventType, title, POSSIBLE_TIMES, attendees));
+    }
+
+    private static List<AttendeeAvailability> availabilities(Event event,
+            AttendeeAvailability.StatusEnum status) {
+        return event.getDateTimes().stream()
+                .map(d -> new AttendeeAvailability()
+                        .startTime(d.getStartTime())
+                        .endTime(d.getEndTime())
+                        .status(status))
+                .toList();
+    }
+}
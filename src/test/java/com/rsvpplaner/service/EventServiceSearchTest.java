@@ -0,0 +1,116 @@
+package com.rsvpplaner.service;
+
+import static com.rsvpplaner.EventFixtures.newEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rsvpplaner.controller.ErrorResponseException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import rsvplaner.v1.model.AttendeeView;
+import rsvplaner.v1.model.Event;
+import rsvplaner.v1.model.EventType;
+
+/**
+ * Which events the filters of findEvents match. Every test tags the titles of its events with a
+ * random tag and searches for it, so events of other tests never match.
+ */
+@SpringBootTest
+class EventServiceSearchTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Test
+    void titleMatchesSubstringIgnoringCase() {
+        var tag = UUID.randomUUID().toString();
+        var party = create("Summer Party " + tag, 1);
+        create("Summer Picnic " + tag, 1);
+
+        assertThat(titles(find("PARTY " + tag, null, null)))
+                .containsExactly(party.getTitle());
+    }
+
+    @Test
+    void titleMatchesLikeWildcardsLiterally() {
+        var tag = UUID.randomUUID().toString();
+        var percent = create("100% fun " + tag, 1);
+        var underscore = create("100_fun " + tag, 1);
+        create("1000 fun " + tag, 1);
+
+        assertThat(titles(find("0% fun " + tag, null, null)))
+                .containsExactly(percent.getTitle());
+        assertThat(titles(find("0_fun " + tag, null, null)))
+                .containsExactly(underscore.getTitle());
+    }
+
+    @Test
+    void timeRangeMatchesEventsWithAnOverlappingPossibleTime() {
+        // possible times are 18:00 to 22:00 from 2030-01-01 on, one per day
+        var tag = UUID.randomUUID().toString();
+        var oneDay = create("one day " + tag, 1);
+        var threeDays = create("three days " + tag, 3);
+
+        assertThat(titles(find(tag, "2030-01-01T21:00:00Z", "2030-01-01T23:00:00Z")))
+                .containsExactly(oneDay.getTitle(), threeDays.getTitle());
+        assertThat(titles(find(tag, "2030-01-02T00:00:00Z", "2030-01-02T19:00:00Z")))
+                .containsExactly(threeDays.getTitle());
+        assertThat(titles(find(tag, "2030-01-01T17:00:00Z", "2030-01-03T23:00:00Z")))
+                .containsExactly(oneDay.getTitle(), threeDays.getTitle());
+    }
+
+    @Test
+    void timeRangeTouchingAPossibleTimeDoesNotMatch() {
+        var tag = UUID.randomUUID().toString();
+        create("one day " + tag, 1);
+
+        assertNotFound(() -> find(tag, "2030-01-01T16:00:00Z", "2030-01-01T18:00:00Z"));
+        assertNotFound(() -> find(tag, "2030-01-01T22:00:00Z", "2030-01-02T00:00:00Z"));
+    }
+
+    @Test
+    void attendeeEmailMatchesEventsTheAttendeeIsInvitedTo() {
+        var tag = UUID.randomUUID().toString();
+        var invited = create("invited " + tag, 1);
+        var organized = eventService.createEvent(
+                newEvent(EventType.PRIVATE, "organized " + tag, 1, 0));
+
+        // invitees are named invitee<n>@example.com, the organizer is a participant as well
+        assertThat(titles(findByAttendee(tag, "invitee0@example.com")))
+                .containsExactly(invited.getTitle());
+        assertThat(titles(findByAttendee(tag, "organizer@example.com")))
+                .containsExactly(invited.getTitle(), organized.getTitle());
+        assertNotFound(() -> findByAttendee(tag, "invitee1@example.com"));
+    }
+
+    private Event create(String title, int possibleTimes) {
+        return eventService.createEvent(newEvent(EventType.PRIVATE, title, possibleTimes, 1));
+    }
+
+    private List<Event> findByAttendee(String title, String attendeeEmail) {
+        return eventService.findEvents(0, 100, null, EventType.PRIVATE, title, attendeeEmail,
+                null, null, null, AttendeeView.NONE).items();
+    }
+
+    private List<Event> find(String title, String startTime, String endTime) {
+        return eventService.findEvents(0, 100, null, EventType.PRIVATE, title, null, null,
+                startTime != null ? Instant.parse(startTime) : null,
+                endTime != null ? Instant.parse(endTime) : null,
+                AttendeeView.NONE).items();
+    }
+
+    private static List<String> titles(List<Event> events) {
+        return events.stream().map(Event::getTitle).toList();
+    }
+
+    private static void assertNotFound(Runnable search) {
+        assertThatThrownBy(search::run)
+                .isInstanceOfSatisfying(ErrorResponseException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+}